@@ -0,0 +1,267 @@
+package discozoosolver;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the board operations performed on every game and every click.
+ * <p>
+ * Each trial covers one location and one number of animals. Games use each combination of that many animals from the
+ * location in turn, so a trial averages over all of them. Clicks are answered truthfully from a hidden layout drawn at
+ * random from the valid layouts, so the board always stays consistent. A click changes its board, so the click
+ * benchmarks are timed over a batch of boards prepared before each iteration rather than setting up a board before
+ * every call, which would swamp clicks lasting microseconds. Run with {@code gradle jmh}, which adds the GC profiler
+ * and writes the results as JSON to build/reports/jmh/results.json.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+    /* The number of boards each iteration of a click benchmark is timed over */
+    private static final int BATCH = 1000;
+
+    /**
+     * The animal combinations of a trial along with the board they are played on.
+     */
+    @State(Scope.Thread)
+    public static class Games {
+        @Param({"Farm", "Outback", "Savanna", "Northern", "Polar", "Jungle", "Jurassic", "Ice Age", "City",
+                "Mountain", "Moon", "Mars"})
+        public String location;
+
+        @Param({"1", "2", "3"})
+        public int animalCount;
+
+        private final SplittableRandom random = new SplittableRandom(1);
+        private List<List<Animal>> combinations;
+        private LayoutBuilder[] layouts;
+        private int next;
+        private Board board;
+
+        /**
+         * Loads the game data and lists every combination of animals for the trial.
+         */
+        @Setup(Level.Trial)
+        public void loadCombinations() {
+            Map<String, Location> locations = GameDataParser.parseData();
+            combinations = new ArrayList<>();
+            addCombinations(locations.get(location).getAnimals(), 0, new ArrayList<>());
+            layouts = new LayoutBuilder[combinations.size()];
+            board = new Board();
+        }
+
+        /**
+         * Recursively adds every combination of animalCount animals, starting from the given index.
+         *
+         * @param animals The animals of the location.
+         * @param start   The index of the first animal which may be added.
+         * @param chosen  The animals chosen so far.
+         */
+        private void addCombinations(List<Animal> animals, int start, List<Animal> chosen) {
+            if (chosen.size() == animalCount) {
+                combinations.add(List.copyOf(chosen));
+                return;
+            }
+            for (int i = start; i < animals.size(); i++) {
+                chosen.add(animals.get(i));
+                addCombinations(animals, i + 1, chosen);
+                chosen.remove(chosen.size() - 1);
+            }
+        }
+
+        /**
+         * @return The index of the next combination of animals, cycling through them all.
+         */
+        int nextCombination() {
+            int combination = next;
+            next = (next + 1) % combinations.size();
+            return combination;
+        }
+
+        /**
+         * Resets a board and adds a combination of animals without generating candidates.
+         *
+         * @param board       The board to start the game on.
+         * @param combination The index of the combination.
+         * @return The animals added.
+         */
+        List<Animal> startGame(Board board, int combination) {
+            List<Animal> animals = combinations.get(combination);
+            board.resetBoard();
+            board.setLocation(location);
+            for (Animal animal : animals) {
+                board.addAnimal(animal);
+            }
+            return animals;
+        }
+
+        /**
+         * @param combination The index of a combination.
+         * @return Every valid layout of the combination's animals, which are worked out once per trial.
+         */
+        LayoutBuilder getLayouts(int combination) {
+            if (layouts[combination] == null) {
+                List<Animal> animals = combinations.get(combination);
+                int[][] placements = new int[animals.size()][];
+                for (int a = 0; a < animals.size(); a++) {
+                    PlacementTable table = PlacementTable.forPattern(animals.get(a).getPattern());
+                    placements[a] = new int[table.size()];
+                    for (int i = 0; i < table.size(); i++) {
+                        placements[a][i] = table.getMask(i);
+                    }
+                }
+                layouts[combination] = new LayoutBuilder(placements);
+            }
+            return layouts[combination];
+        }
+    }
+
+    /**
+     * A batch of boards with candidates generated for successive combinations, each with a truthful hit and a truthful
+     * miss ready to apply. The boards are created once and prepared again before every iteration.
+     */
+    @State(Scope.Thread)
+    public static class Clicks {
+        private final Board[] boards = new Board[BATCH];
+        private final Block[] hits = new Block[BATCH];
+        private final String[] hitAnimals = new String[BATCH];
+        private final Block[] misses = new Block[BATCH];
+
+        /**
+         * Starts the next game on every board and draws the hidden layouts the clicks are answered from.
+         *
+         * @param games The trial's games.
+         */
+        @Setup(Level.Iteration)
+        public void prepare(Games games) {
+            for (int i = 0; i < BATCH; i++) {
+                if (boards[i] == null) {
+                    boards[i] = new Board();
+                }
+                int combination = games.nextCombination();
+                List<Animal> animals = games.startGame(boards[i], combination);
+                boards[i].generateCandidates();
+
+                LayoutBuilder builder = games.getLayouts(combination);
+                int[] unions = builder.getUnions();
+                int layout = games.random.nextInt(unions.length);
+                int animal = games.random.nextInt(animals.size());
+                int animalMask = builder.getLayouts()[layout * animals.size() + animal];
+
+                hits[i] = toBlock(pickCell(animalMask, games.random));
+                hitAnimals[i] = animals.get(animal).getName();
+                misses[i] = toBlock(pickCell(~unions[layout] & ((1 << 25) - 1), games.random));
+            }
+        }
+
+        /**
+         * @param mask   A non-empty bitmask of cells.
+         * @param random The source of randomness.
+         * @return The index of a random cell in the mask.
+         */
+        private static int pickCell(int mask, SplittableRandom random) {
+            int bits = mask;
+            for (int skip = random.nextInt(Integer.bitCount(mask)); skip > 0; skip--) {
+                bits &= bits - 1;
+            }
+            return Integer.numberOfTrailingZeros(bits);
+        }
+
+        /**
+         * @param cell The index of a cell.
+         * @return The block at that index.
+         */
+        private static Block toBlock(int cell) {
+            return new Block(cell % Constants.BOARD_SIZE, cell / Constants.BOARD_SIZE);
+        }
+    }
+
+    /**
+     * A batch of boards on which a truthful miss has been applied but not propagated, so that checkForKnownCells has
+     * the miss's changes to work through. Generating candidates propagates everything itself, so without the miss the
+     * check would have nothing to do.
+     */
+    @State(Scope.Thread)
+    public static class PendingChecks {
+        private final Clicks clicks = new Clicks();
+
+        /**
+         * Starts the next game on every board and applies each board's miss without propagating it.
+         *
+         * @param games The trial's games.
+         */
+        @Setup(Level.Iteration)
+        public void prepare(Games games) {
+            clicks.prepare(games);
+            for (int i = 0; i < BATCH; i++) {
+                clicks.boards[i].removeForMiss(clicks.misses[i]);
+            }
+        }
+    }
+
+    /**
+     * Measures starting a game, which includes resetting the board and adding the animals before generating.
+     */
+    @Benchmark
+    public List<Candidate> generateCandidates(Games games) {
+        games.startGame(games.board, games.nextCombination());
+        games.board.generateCandidates();
+        return games.board.getCandidates();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10)
+    @Measurement(iterations = 20)
+    @OperationsPerInvocation(BATCH)
+    public void confirmHit(Clicks clicks, Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            clicks.boards[i].confirmHit(clicks.hits[i], clicks.hitAnimals[i]);
+            blackhole.consume(clicks.boards[i].getCandidates());
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10)
+    @Measurement(iterations = 20)
+    @OperationsPerInvocation(BATCH)
+    public void confirmMiss(Clicks clicks, Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            clicks.boards[i].confirmMiss(clicks.misses[i]);
+            blackhole.consume(clicks.boards[i].getCandidates());
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Warmup(iterations = 10)
+    @Measurement(iterations = 20)
+    @OperationsPerInvocation(BATCH)
+    public void checkForKnownCells(PendingChecks checks, Blackhole blackhole) {
+        for (int i = 0; i < BATCH; i++) {
+            checks.clicks.boards[i].checkForKnownCells();
+            blackhole.consume(checks.clicks.boards[i].getCells());
+        }
+    }
+}
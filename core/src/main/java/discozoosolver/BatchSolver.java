@@ -0,0 +1,203 @@
+package discozoosolver;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * A command line entry point which replays recorded games through the solver without any user interface.
+ * <p>
+ * Input is read one line at a time, each line being a comma separated record of one of the following forms:
+ * - game,location,animal[,animal...]: starts a new game with the given animals.
+ * - hit,x,y,animal: the animal was found at (x, y).
+ * - miss,x,y: (x, y) was empty.
+ * Blank lines and lines starting with # are copied to the output unchanged.
+ * <p>
+ * Every other line produces exactly one output line. After a successful step this is
+ * next,x,y,p0,...,p24 where (x, y) is the recommended click, or next,-,- once every animal has been found, followed by
+ * the probability that each cell holds an animal in reading order. A line which cannot be applied produces
+ * error,message and the game is abandoned until the next game line.
+ * <p>
+ * Only the current game is held in memory, so archives of any size are processed in constant memory. By default the
+ * recommended click is the one most likely to hit; with --optimal the expectimax solver is used instead, which
+ * minimises the expected number of clicks but is far slower for three animals.
+ */
+public class BatchSolver {
+    private static final int CELLS = Constants.BOARD_SIZE * Constants.BOARD_SIZE;
+
+    private final Map<String, Location> locations;
+    private final boolean optimal;
+    private GameSession session;
+
+    /**
+     * Sole constructor for BatchSolver.
+     *
+     * @param locations The game data, as returned by GameDataParser.parseData.
+     * @param optimal   Whether to recommend the click minimising the expected number of clicks rather than the click
+     *                  most likely to hit.
+     */
+    public BatchSolver(Map<String, Location> locations, boolean optimal) {
+        this.locations = locations;
+        this.optimal = optimal;
+    }
+
+    /**
+     * Processes every line of the input, writing one line of output for each.
+     *
+     * @param in  The game records.
+     * @param out The destination for the results.
+     * @throws IOException If reading or writing fails.
+     */
+    public void process(BufferedReader in, Writer out) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            out.write(processLine(line));
+            out.write('\n');
+            // Flush whenever the input has been drained so that interactive use sees each result straight away.
+            if (!in.ready()) {
+                out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Applies a single game record to the current game.
+     *
+     * @param line The record to apply.
+     * @return The line of output for the record.
+     */
+    public String processLine(String line) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+            return line;
+        }
+        String[] fields = trimmed.split("\\s*,\\s*");
+        try {
+            switch (fields[0].toLowerCase()) {
+                case "game":
+                    startGame(fields);
+                    break;
+                case "hit":
+                    requireFields(fields, 4);
+                    session.hit(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]), fields[3]);
+                    break;
+                case "miss":
+                    requireFields(fields, 3);
+                    session.miss(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown record type: " + fields[0]);
+            }
+            return describe();
+        } catch (RuntimeException e) {
+            // Nothing more is applied to a game once one of its records has been rejected.
+            session = null;
+            return "error," + e.getMessage();
+        }
+    }
+
+    /**
+     * Starts a new game from a game record.
+     *
+     * @param fields The fields of the record.
+     */
+    private void startGame(String[] fields) {
+        session = null;
+        if (fields.length < 3) {
+            throw new IllegalArgumentException("A game needs a location and at least one animal");
+        }
+        Location location = locations.get(fields[1]);
+        if (location == null) {
+            throw new IllegalArgumentException("Unknown location: " + fields[1]);
+        }
+        session = new GameSession(location, Arrays.asList(fields).subList(2, fields.length));
+    }
+
+    /**
+     * @param fields The fields of a hit or miss record.
+     * @param count  The number of fields the record needs.
+     */
+    private void requireFields(String[] fields, int count) {
+        if (session == null) {
+            throw new IllegalStateException("No game in progress");
+        }
+        if (fields.length != count) {
+            throw new IllegalArgumentException("Expected " + count + " fields but found " + fields.length);
+        }
+    }
+
+    /**
+     * @return The recommended click followed by the hit probability of every cell.
+     */
+    private String describe() {
+        Probabilities probabilities = session.getProbabilities();
+        Block next = optimal ? session.getRecommendation().getBlock() : session.getMostLikelyBlock(probabilities);
+
+        StringBuilder builder = new StringBuilder(8 * CELLS);
+        builder.append("next,");
+        if (next == null) {
+            builder.append("-,-");
+        } else {
+            builder.append(next.x()).append(',').append(next.y());
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            builder.append(',');
+            appendProbability(builder, probabilities.getHitProbability(cell));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Appends a probability with four decimal places without going through String.format, which dominates the cost
+     * of each line otherwise.
+     *
+     * @param builder     The builder to append to.
+     * @param probability The probability, between 0 and 1.
+     */
+    private static void appendProbability(StringBuilder builder, double probability) {
+        long scaled = Math.round(probability * 10000);
+        builder.append(scaled / 10000).append('.');
+        String fraction = Long.toString(scaled % 10000);
+        for (int i = fraction.length(); i < 4; i++) {
+            builder.append('0');
+        }
+        builder.append(fraction);
+    }
+
+    /**
+     * Replays game records from a file, or from standard input if no file is given, writing results to standard
+     * output.
+     * <p>
+     * Usage: BatchSolver [--optimal] [file]
+     *
+     * @param args The optional --optimal flag and input file.
+     * @throws IOException If reading or writing fails.
+     */
+    public static void main(String[] args) throws IOException {
+        boolean optimal = Arrays.asList(args).contains("--optimal");
+        String file = null;
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                file = arg;
+            }
+        }
+
+        BatchSolver solver = new BatchSolver(GameDataParser.parseData(), optimal);
+        Reader reader = file == null ? new InputStreamReader(System.in, StandardCharsets.UTF_8)
+                : Files.newBufferedReader(Paths.get(file), StandardCharsets.UTF_8);
+        try (BufferedReader in = new BufferedReader(reader);
+             Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            solver.process(in, out);
+        }
+    }
+}
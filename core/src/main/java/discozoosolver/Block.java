@@ -29,6 +29,20 @@ public class Block {
         return y;
     }
 
+    /**
+     * @return the index of the block on the board, counted row by row from the top left cell.
+     */
+    public int index() {
+        return y * Constants.BOARD_SIZE + x;
+    }
+
+    /**
+     * @return a board bitmask with only the bit for this block set.
+     */
+    public int toMask() {
+        return 1 << index();
+    }
+
     /**
      * Returns whether two blocks are equal. They are considered equal if their x and y coordinates are equal.
      *
@@ -0,0 +1,944 @@
+package discozoosolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Class representing the game board.
+ * <p>
+ * The board keeps a list of Cells and maintains the set of possible animal candidates based on the current state of
+ * the cells and the solver. Each candidate carries its position as a bitmask over the board so that checking whether
+ * it contains a block, or finding the blocks shared by several candidates, is a single bitwise operation.
+ * <p>
+ * The contents of each cell are maintained incrementally. Whenever a candidate is added or removed, only the counts and
+ * animal sets of the cells it occupies are updated, so the work done for each move scales with the number of
+ * candidates it eliminates rather than with the total number of candidates. The cells' state is held in a CellStates,
+ * as flat arrays of counts and of animal bitsets indexed by the order the animals were added, and packed flag bits.
+ * The Cells the board hands out are views of it.
+ * <p>
+ * The board also keeps a hash of what has been observed so far: the location, the animals and the result of every
+ * confirmed cell. It is updated with a single xor on each change, so equal observations reached through different
+ * click orders share a hash, and recommendations are cached against it.
+ * <p>
+ * Every step of a game, from generating the candidates onwards, is recorded as an immutable BoardSnapshot. Steps can be
+ * undone and redone, or any earlier step returned to, by making its snapshot current again. The candidates of each
+ * animal are held in lists which are replaced rather than modified when a step removes candidates, so that a snapshot
+ * shares the lists of every animal a step did not affect, and the board picks them up again unchanged on returning to
+ * the snapshot. Nothing is worked out again, and recommendations for the step are found in the cache by its hash.
+ * <p>
+ * The board has no knowledge of how it is displayed. Anything which needs to follow its state, such as the user
+ * interface, registers a BoardListener and is notified after each change.
+ */
+public class Board {
+    private static final int RECOMMENDATION_CACHE_CAPACITY = 4096;
+    /* Three to four seconds of searching on a single core, which most but not all two animal openings fit within */
+    private static final long SEARCH_NODE_LIMIT = 1 << 20;
+    private static final TranspositionTable<Recommendation> RECOMMENDATIONS =
+            new TranspositionTable<>(RECOMMENDATION_CACHE_CAPACITY);
+    private static volatile PolicyTable policy = PolicyTable.fromProperty();
+
+    private List<List<Candidate>> candidates;
+    private int[][] placements;
+    /* The placement table indices of each animal's remaining candidates, as a bitset */
+    private int[] remaining;
+    /* For each pair of animals, the placements of the second which do not overlap each placement of the first */
+    private int[][][] compatible;
+    private PlacementTable[] tables;
+    private List<Animal> animals;
+    /* The index of each animal on the board by name, so that hits are resolved without comparing names */
+    private final Map<String, Integer> animalIndices;
+    private final CellStates cellStates;
+    private final List<Cell> cells;
+    private final List<BoardListener> listeners;
+    private final List<BoardSnapshot> history;
+    private int step;
+    private String location;
+    private PriorityMode priorityMode;
+    private int[][] animalCounts;
+    /* The animals whose cell counts were copied for this step, rather than shared with the current snapshot */
+    private int ownedCounts;
+    private int pendingEmpty;
+    /* The animals whose candidates have changed since they were last checked for known cells */
+    private int pendingAnimals;
+    private int revealed;
+    private long setupHash;
+    private long observationHash;
+
+    /**
+     * Sole constructor for Board. Its cells are initialised as a BOARD_SIZE x BOARD_SIZE grid of empty cells.
+     */
+    public Board() {
+        listeners = new CopyOnWriteArrayList<>();
+        history = new ArrayList<>();
+        step = -1;
+        candidates = new ArrayList<>();
+        placements = new int[0][];
+        remaining = new int[0];
+        compatible = new int[0][][];
+        tables = new PlacementTable[0];
+        animals = new ArrayList<>();
+        animalIndices = new HashMap<>();
+        priorityMode = PriorityMode.COUNT;
+        animalCounts = new int[0][];
+        cellStates = new CellStates(Constants.BOARD_SIZE * Constants.BOARD_SIZE);
+        this.cells = createCells();
+    }
+
+    /**
+     * @return a list of BOARD_SIZE x BOARD_SIZE views of the board's cell states.
+     */
+    private List<Cell> createCells() {
+        List<Cell> newCells = new ArrayList<>();
+        for (int y = 0; y < Constants.BOARD_SIZE; y++) {
+            for (int x = 0; x < Constants.BOARD_SIZE; x++) {
+                Cell cell = new Cell(cellStates, y * Constants.BOARD_SIZE + x, x, y);
+                newCells.add(cell);
+            }
+        }
+        return Collections.unmodifiableList(newCells);
+    }
+
+    /**
+     * Processes a move input by the user where the given animal is confirmed to be in the given block. Candidates are
+     * eliminated if the candidate is a different animal and it contains the given block or if it is the same animal
+     * and does not contain the given block.
+     *
+     * @param block  The block which contains the animal.
+     * @param animal The animal which was discovered.
+     * @throws IllegalArgumentException If the block has already been confirmed.
+     */
+    public void confirmHit(Block block, String animal) {
+        requireUnrevealed(block);
+        int index = indexOfAnimal(animal);
+        applyStep(() -> {
+            removeForHit(block.toMask(), index);
+            setFinalised(block);
+            observationHash ^= Zobrist.hitKey(block.index(), animal);
+            processCells();
+        });
+    }
+
+    /**
+     * Processes a move input by the user where it is confirmed that the given block does not contain an animal.
+     * Candidates are eliminated if they contain the given block.
+     *
+     * @param block The block which is known to be empty.
+     * @throws IllegalArgumentException If the block has already been confirmed.
+     */
+    public void confirmMiss(Block block) {
+        requireUnrevealed(block);
+        applyStep(() -> {
+            removeForMiss(block);
+            processCells();
+        });
+    }
+
+    /**
+     * Removes the candidates which contain an empty block and finalises it, leaving the animals whose candidates
+     * changed queued for checkForKnownCells. This is package-private so that the check can be benchmarked on its own.
+     *
+     * @param block The block which is known to be empty.
+     */
+    void removeForMiss(Block block) {
+        for (int a = 0; a < placements.length; a++) {
+            removeCandidates(a, block.toMask(), true);
+        }
+        setFinalised(block);
+        observationHash ^= Zobrist.missKey(block.index());
+    }
+
+    /**
+     * Rejects a second result for a cell. Each result toggles its key into the observation hash, so confirming a cell
+     * twice would cancel its key and give the hash of different observations.
+     *
+     * @param block The block about to be confirmed.
+     * @throws IllegalArgumentException If the block has already been confirmed.
+     */
+    private void requireUnrevealed(Block block) {
+        if ((revealed & block.toMask()) != 0) {
+            throw new IllegalArgumentException("Cell has already been revealed: " + block.x() + "," + block.y());
+        }
+    }
+
+    /**
+     * Finds the index of an animal on the board from its name. This is the only point at which a hit's animal is
+     * looked up by name; the board works with indices from here on.
+     *
+     * @param animal The name of an animal.
+     * @return The index of the animal in the order the animals were added, or -1 if it is not on the board.
+     */
+    private int indexOfAnimal(String animal) {
+        Integer index = animalIndices.get(animal);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Removes the candidates which disagree with an animal being in a cell: those of the animal which do not contain
+     * the cell and those of every other animal which do.
+     *
+     * @param bit    The bitmask of the cell.
+     * @param animal The index of the animal in the cell, or -1 if it is not on the board.
+     */
+    private void removeForHit(int bit, int animal) {
+        for (int a = 0; a < placements.length; a++) {
+            removeCandidates(a, bit, a != animal);
+        }
+    }
+
+    /**
+     * Applies a step of the game and records the resulting state as the current step, discarding any steps which had
+     * been undone. A step which fails part way through, because it leaves an animal with nowhere to be, is rolled back
+     * so that the board is left as it was before the step.
+     *
+     * @param action The change to make to the board.
+     */
+    private void applyStep(Runnable action) {
+        try {
+            action.run();
+        } catch (RuntimeException e) {
+            if (step >= 0) {
+                restore(history.get(step));
+            }
+            throw e;
+        }
+        BoardSnapshot state = capture(step >= 0 ? history.get(step) : null);
+        history.subList(step + 1, history.size()).clear();
+        history.add(state);
+        step++;
+        ownedCounts = 0;
+        fireBoardChanged();
+    }
+
+    /**
+     * Sets the cell associated with the given block as finalised. This occurs when the user has confirmed the contents
+     * of a cell via confirmHit or confirmMiss.
+     *
+     * @param block The block to set as finalised.
+     */
+    private void setFinalised(Block block) {
+        revealed |= block.toMask();
+        cellStates.setFinalised(block.index(), true);
+        /* The board may have confirmed the cell's contents as known which takes rendering precedence over finalised. */
+        cellStates.setKnown(block.index(), false);
+    }
+
+    /**
+     * Generates a complete list of candidates from the current set of animals.
+     */
+    public void generateCandidates() {
+        // A new game starts a new history.
+        history.clear();
+        step = -1;
+        applyStep(() -> {
+            animalCounts = new int[animals.size()][cells.size()];
+            candidates = new ArrayList<>();
+            placements = new int[animals.size()][];
+            remaining = new int[animals.size()];
+            tables = new PlacementTable[animals.size()];
+            List<String> names = new ArrayList<>(animals.size());
+            for (Animal animal : animals) {
+                names.add(animal.getName());
+            }
+            cellStates.setAnimalNames(names);
+            // Placements are shared between every board and every animal with the same shape, so only the candidates
+            // themselves are created here.
+            for (int a = 0; a < animals.size(); a++) {
+                Animal animal = animals.get(a);
+                PlacementTable table = PlacementTable.forPattern(animal.getPattern());
+                List<Candidate> options = new ArrayList<>(table.size());
+                placements[a] = new int[table.size()];
+                for (int i = 0; i < table.size(); i++) {
+                    options.add(new Candidate(animal, table.getPosition(i), table.getMask(i)));
+                    placements[a][i] = table.getMask(i);
+                    addToCells(placements[a][i], a, animalCounts[a]);
+                }
+                candidates.add(Collections.unmodifiableList(options));
+                remaining[a] = (1 << table.size()) - 1;
+                tables[a] = table;
+            }
+            compatible = new int[animals.size()][animals.size()][];
+            for (int a = 0; a < animals.size(); a++) {
+                for (int b = 0; b < animals.size(); b++) {
+                    if (a != b) {
+                        compatible[a][b] = tables[a].getCompatible(tables[b]);
+                    }
+                }
+            }
+            ownedCounts = (1 << animals.size()) - 1;
+            pendingAnimals = ownedCounts;
+            for (int i = 0; i < cells.size(); i++) {
+                if (cellStates.getCount(i) == 0) {
+                    pendingEmpty |= 1 << i;
+                }
+            }
+            processCells();
+        });
+    }
+
+    /**
+     * Checks to see if any cells are now known and finalises any cells which were emptied by the latest changes.
+     */
+    private void processCells() {
+        checkForKnownCells();
+        for (int bits = pendingEmpty; bits != 0; bits &= bits - 1) {
+            int index = Integer.numberOfTrailingZeros(bits);
+            if (cellStates.getAnimals(index) == 0) {
+                cellStates.setFinalised(index, true);
+            }
+        }
+        pendingEmpty = 0;
+    }
+
+    /**
+     * Removes the candidates of an animal which contain, or which do not contain, the given cells, updating the
+     * contents of the cells they occupied. The candidates are tested through their bitmasks alone.
+     *
+     * @param animal     The index of the animal.
+     * @param cells      The bitmask of cells to test each candidate against.
+     * @param containing true to remove the candidates which overlap the cells, false to remove those which do not.
+     */
+    private void removeCandidates(int animal, int cells, boolean containing) {
+        int[] masks = placements[animal];
+        int removed = 0;
+        int bits = remaining[animal];
+        for (int i = 0; i < masks.length; i++, bits &= bits - 1) {
+            if (((masks[i] & cells) != 0) == containing) {
+                removed |= bits & -bits;
+            }
+        }
+        removePlacements(animal, removed);
+    }
+
+    /**
+     * Removes the candidates of an animal which overlap every remaining candidate of another animal, as both animals
+     * must appear without overlapping. Each candidate is tested with a single and of the placements it is compatible
+     * with against the other animal's remaining placements.
+     *
+     * @param animal The index of the animal whose candidates to test.
+     * @param other  The index of the animal they must leave room for.
+     */
+    private void removeUnsupported(int animal, int other) {
+        int[] supports = compatible[animal][other];
+        int available = remaining[other];
+        int removed = 0;
+        for (int bits = remaining[animal]; bits != 0; bits &= bits - 1) {
+            int index = Integer.numberOfTrailingZeros(bits);
+            if ((supports[index] & available) == 0) {
+                removed |= 1 << index;
+            }
+        }
+        removePlacements(animal, removed);
+    }
+
+    /**
+     * Removes candidates of an animal, updating the contents of the cells they occupied and queueing the animal to be
+     * checked for known cells. The candidate list and bitmasks of an animal which loses candidates are replaced rather
+     * than modified, as they may be shared with earlier snapshots.
+     *
+     * @param animal  The index of the animal.
+     * @param removed The bitset of the placement table indices of the candidates to remove, which may be empty.
+     */
+    private void removePlacements(int animal, int removed) {
+        if (removed == 0) {
+            return;
+        }
+        int[] masks = placements[animal];
+        List<Candidate> options = candidates.get(animal);
+        int[] kept = new int[masks.length - Integer.bitCount(removed)];
+        List<Candidate> keptOptions = new ArrayList<>(kept.length);
+        int keptCount = 0;
+        int[] counts = ownCounts(animal);
+        int bits = remaining[animal];
+        for (int i = 0; i < masks.length; i++, bits &= bits - 1) {
+            if ((removed & bits & -bits) != 0) {
+                removeFromCells(masks[i], animal, counts);
+            } else {
+                kept[keptCount++] = masks[i];
+                keptOptions.add(options.get(i));
+            }
+        }
+        remaining[animal] &= ~removed;
+        placements[animal] = kept;
+        pendingAnimals |= 1 << animal;
+        candidates.set(animal, Collections.unmodifiableList(keptOptions));
+    }
+
+    /**
+     * @param table The placement table of an animal.
+     * @param masks The bitmasks of the animal's remaining candidates, in the table's order.
+     * @return The bitset of the table indices of the remaining candidates.
+     */
+    private static int toRemaining(PlacementTable table, int[] masks) {
+        int bits = 0;
+        for (int i = 0, k = 0; i < table.size() && k < masks.length; i++) {
+            if (table.getMask(i) == masks[k]) {
+                bits |= 1 << i;
+                k++;
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Returns an animal's cell counts for the current step to update, copying them first if they are still shared with
+     * the current snapshot.
+     *
+     * @param animal The index of the animal.
+     * @return The number of the animal's candidates occupying each cell.
+     */
+    private int[] ownCounts(int animal) {
+        if ((ownedCounts & (1 << animal)) == 0) {
+            animalCounts[animal] = animalCounts[animal].clone();
+            ownedCounts |= 1 << animal;
+        }
+        return animalCounts[animal];
+    }
+
+    /**
+     * Adds the candidate to the count and the set of animals of each cell it occupies.
+     *
+     * @param mask   The bitmask of the candidate which was added.
+     * @param animal The index of its animal.
+     * @param counts The number of candidates for its animal occupying each cell.
+     */
+    private void addToCells(int mask, int animal, int[] counts) {
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            int index = Integer.numberOfTrailingZeros(bits);
+            cellStates.addAnimal(index, animal);
+            cellStates.incrementCount(index);
+            counts[index]++;
+        }
+    }
+
+    /**
+     * Removes the candidate from the count of each cell it occupies. If it was the last candidate for its animal in a
+     * cell, the animal is removed from that cell's set of animals and if the cell is left empty it is marked to be
+     * finalised once processing is complete.
+     *
+     * @param mask   The bitmask of the candidate which was removed.
+     * @param animal The index of its animal.
+     * @param counts The number of candidates for its animal occupying each cell.
+     */
+    private void removeFromCells(int mask, int animal, int[] counts) {
+        for (int bits = mask; bits != 0; bits &= bits - 1) {
+            int index = Integer.numberOfTrailingZeros(bits);
+            if (--counts[index] == 0) {
+                cellStates.removeAnimal(index, animal);
+            }
+            if (cellStates.decrementCount(index) == 0) {
+                pendingEmpty |= 1 << index;
+            }
+        }
+    }
+
+    /**
+     * Propagates the candidates removed by the latest changes and marks any known cells as such.
+     * <p>
+     * A cell is known to contain an animal if every remaining candidate for the animal occupies it, which includes
+     * every cell of an animal's only candidate, as each animal must appear. Any other animal's candidates occupying a
+     * known cell are then removed, which may make further cells known.
+     * <p>
+     * The animals must also fit on the board together, so a candidate which overlaps every remaining candidate of
+     * another animal is removed. Whether a candidate leaves room for another animal is looked up in the compatibility
+     * bitsets of their placement tables, which are worked out once per pair of shapes, so each test is a single and.
+     * <p>
+     * The work is driven by the animals whose candidates have changed since they were last checked. Checking an animal
+     * finds its known cells and removes the candidates of other animals which no longer leave room for it. This only
+     * removes candidates from other animals, which queues those animals to be checked in turn, until no animal is
+     * queued. An animal whose candidates were untouched is not looked at again. Each deduction only ever removes
+     * candidates and holds for any smaller set of candidates, so every order of checking reaches the same cells and
+     * the same candidates, and each animal is checked once per change to its candidates whatever the order.
+     * <p>
+     * This is package-private rather than private so that it can be benchmarked on its own.
+     *
+     * @throws IndexOutOfBoundsException If an animal is left with no candidates.
+     */
+    void checkForKnownCells() {
+        while (pendingAnimals != 0) {
+            int animal = Integer.numberOfTrailingZeros(pendingAnimals);
+            pendingAnimals &= pendingAnimals - 1;
+            int known = getCommonCells(animal) & ~(cellStates.getFinalised() | cellStates.getKnown());
+            if (known != 0) {
+                setKnownCells(known, animal);
+            }
+            for (int a = 0; a < placements.length; a++) {
+                if (a != animal) {
+                    removeUnsupported(a, animal);
+                }
+            }
+        }
+
+        updatePriorities();
+    }
+
+    /**
+     * @param animal The index of an animal.
+     * @return The bitmask of cells occupied by every remaining candidate for the animal.
+     * @throws IndexOutOfBoundsException If the animal has no candidates left.
+     */
+    private int getCommonCells(int animal) {
+        int[] masks = placements[animal];
+        if (masks.length == 0) {
+            throw new IndexOutOfBoundsException("No candidates remain for " + animals.get(animal).getName());
+        }
+        int common = masks[0];
+        for (int i = 1; i < masks.length && common != 0; i++) {
+            common &= masks[i];
+        }
+        return common;
+    }
+
+    /**
+     * Sets cells which are known to contain an animal as known, removing every other animal's candidates which occupy
+     * them. Every candidate for the animal itself already occupies the cells.
+     *
+     * @param known  The bitmask of the cells, none of which are finalised or known.
+     * @param animal The index of the animal which the cells contain.
+     */
+    private void setKnownCells(int known, int animal) {
+        for (int a = 0; a < placements.length; a++) {
+            if (a != animal) {
+                removeCandidates(a, known, true);
+            }
+        }
+        for (int bits = known; bits != 0; bits &= bits - 1) {
+            int index = Integer.numberOfTrailingZeros(bits);
+            cellStates.setKnown(index, true);
+            cellStates.setFinalised(index, false);
+        }
+    }
+
+    /**
+     * Calculates the cells which are most likely to contain an animal and sets them as the suggested cells. The
+     * ranking used depends on the current priority mode.
+     */
+    private void updatePriorities() {
+        long[] scores = new long[cells.size()];
+        if (priorityMode == PriorityMode.EXACT) {
+            Probabilities probabilities = getProbabilities();
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = probabilities.getHitCount(i);
+            }
+        } else {
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = cellStates.getCount(i);
+            }
+        }
+
+        // The new priorities are worked out before any cell is touched, so cells which keep their priority are not
+        // recorded as changed.
+        long maxScore = 0;
+        int priorities = 0;
+        boolean cleared = false;
+        int settled = cellStates.getFinalised() | cellStates.getKnown();
+        for (int i = 0; i < scores.length; i++) {
+            if ((settled & (1 << i)) == 0) {
+                if (scores[i] < maxScore) {
+                    continue;
+                } else if (scores[i] > maxScore) {
+                    maxScore = scores[i];
+                    priorities = 0;
+                    cleared = true;
+                }
+                priorities |= 1 << i;
+            }
+        }
+        // With no cell able to hit, the unsettled cells are added to the existing priorities rather than replacing them.
+        cellStates.setPriority(cleared ? priorities : cellStates.getPriority() | priorities);
+    }
+
+    /**
+     * Calculates the exact probability of each animal occupying each cell from every combination of the current
+     * candidates in which no two animals overlap. Animals are indexed in the order they were added to the board.
+     *
+     * @return The probabilities for the current candidates.
+     */
+    public Probabilities getProbabilities() {
+        return Probabilities.calculate(getPlacements());
+    }
+
+    /**
+     * Finds the click which minimises the expected number of clicks needed to uncover every animal, taking into
+     * account every possible result of each click. The precomputed policy table is consulted first, if there is one,
+     * and otherwise the click is searched for. A search which runs out of budget, as three animal openings and a few
+     * two animal openings do, recommends the most likely cell instead.
+     *
+     * @return The recommended click and the expected number of clicks remaining.
+     */
+    public Recommendation getRecommendation() {
+        return recommend(getStateHash(), getPlacements(), revealed, getCandidateCount(), null);
+    }
+
+    /**
+     * Looks up the recommendation for some observations in the policy table and the shared cache, and otherwise
+     * searches for it and caches the result.
+     *
+     * @param hash           The hash of the observations.
+     * @param placements     The candidate bitmasks for each animal.
+     * @param revealed       The bitmask of cells which have been clicked.
+     * @param candidateCount The total number of candidates, used to weigh the result in the cache.
+     * @param cancellation   Returns true once the recommendation is no longer needed, or null if it should always be
+     *                       found.
+     * @return The recommended click and the expected number of clicks remaining.
+     */
+    static Recommendation recommend(long hash, int[][] placements, int revealed, int candidateCount,
+                                    BooleanSupplier cancellation) {
+        PolicyTable table = policy;
+        Recommendation recommendation = table == null ? null : table.get(hash);
+        if (recommendation == null) {
+            recommendation = RECOMMENDATIONS.get(hash);
+        }
+        if (recommendation == null) {
+            ExpectimaxSolver solver = new ExpectimaxSolver(placements);
+            solver.setCancellation(cancellation);
+            solver.setNodeLimit(SEARCH_NODE_LIMIT);
+            recommendation = solver.recommend(revealed);
+            RECOMMENDATIONS.put(hash, candidateCount, recommendation);
+        }
+        return recommendation;
+    }
+
+    /**
+     * Returns the board's current state, which may be read from other threads while the board changes. Once a game has
+     * started this is the snapshot recorded for the current step, so no copy is made.
+     *
+     * @return The snapshot.
+     */
+    public BoardSnapshot snapshot() {
+        return step >= 0 ? history.get(step) : capture(null);
+    }
+
+    /**
+     * Records the board's current state, sharing every part which has not changed since the previous snapshot.
+     *
+     * @param previous The snapshot of the step before, or null if there is none.
+     * @return The snapshot.
+     */
+    private BoardSnapshot capture(BoardSnapshot previous) {
+        // The cells' animal names change with each game, so the snapshot keeps its own copy of them.
+        boolean namesUnchanged = previous != null && previous.getAnimalNames().equals(cellStates.getAnimalNames());
+        List<String> animalNames = namesUnchanged ? previous.getAnimalNames()
+                : List.copyOf(cellStates.getAnimalNames());
+        boolean animalsUnchanged = previous != null && cellStates.hasAnimals(previous.getCellAnimals());
+        int[] cellAnimals = animalsUnchanged ? previous.getCellAnimals() : cellStates.copyAnimals();
+        return new BoardSnapshot(animalNames, cellAnimals, cellStates.copyCounts(),
+                cellStates.getKnown(), cellStates.getFinalised(), cellStates.getPriority(), revealed,
+                Collections.unmodifiableList(new ArrayList<>(candidates)), animalCounts.clone(), placements.clone(),
+                getCandidateCount(), getStateHash());
+    }
+
+    /**
+     * Makes a recorded snapshot the board's state again. The candidate lists and cell counts are taken up from the
+     * snapshot as they are, and are only copied if a later step changes them.
+     *
+     * @param state The snapshot to return to.
+     */
+    private void restore(BoardSnapshot state) {
+        candidates = new ArrayList<>(state.getCandidates());
+        placements = state.getPlacements().clone();
+        // The tables and their compatibility are the same for every step of a game.
+        for (int a = 0; a < placements.length; a++) {
+            remaining[a] = toRemaining(tables[a], placements[a]);
+        }
+        animalCounts = state.getAnimalCounts().clone();
+        ownedCounts = 0;
+        pendingEmpty = 0;
+        pendingAnimals = 0;
+        revealed = state.getRevealed();
+        cellStates.restore(state.getCellAnimals(), state.getCounts(), state.getKnown(), state.getFinalised(),
+                state.getPriority());
+        // The location and animals are the same for every step of a game, so only the observations differ.
+        observationHash = state.getStateHash() ^ setupHash;
+    }
+
+    /**
+     * @return Whether there is an earlier step of the game to return to.
+     */
+    public boolean canUndo() {
+        return step > 0;
+    }
+
+    /**
+     * @return Whether there is an undone step of the game to return to.
+     */
+    public boolean canRedo() {
+        return step >= 0 && step < history.size() - 1;
+    }
+
+    /**
+     * Returns the board to the step before the current one. The current step is kept until another step is taken, so
+     * that it can be redone.
+     *
+     * @throws IllegalStateException If there is no earlier step.
+     */
+    public void undo() {
+        if (!canUndo()) {
+            throw new IllegalStateException("There is no step to undo");
+        }
+        goToStep(step - 1);
+    }
+
+    /**
+     * Returns the board to the step after the current one, which must have been undone.
+     *
+     * @throws IllegalStateException If there is no undone step.
+     */
+    public void redo() {
+        if (!canRedo()) {
+            throw new IllegalStateException("There is no step to redo");
+        }
+        goToStep(step + 1);
+    }
+
+    /**
+     * Returns the board to any step of the current game. Step 0 is the game as generated and each click adds a step.
+     *
+     * @param target The step to return to.
+     * @throws IndexOutOfBoundsException If the game has no such step.
+     */
+    public void goToStep(int target) {
+        if (target < 0 || target >= history.size()) {
+            throw new IndexOutOfBoundsException("Step " + target + " of " + history.size());
+        }
+        step = target;
+        restore(history.get(step));
+        fireBoardChanged();
+    }
+
+    /**
+     * @return The current step of the game, or -1 if no game has started.
+     */
+    public int getStep() {
+        return step;
+    }
+
+    /**
+     * @return The number of steps recorded for the current game, including any which have been undone.
+     */
+    public int getStepCount() {
+        return history.size();
+    }
+
+    /**
+     * Searches for the best click without consulting or filling any cache.
+     *
+     * @param tableCapacity The number of states the search may remember.
+     * @param pool          The pool to search on, or null to search on the calling thread.
+     * @return The recommended click and the expected number of clicks remaining.
+     */
+    Recommendation search(int tableCapacity, ForkJoinPool pool) {
+        return new ExpectimaxSolver(getPlacements(), tableCapacity, pool).recommend(revealed);
+    }
+
+    /**
+     * @return The precomputed recommendations consulted before searching, or null if there are none.
+     */
+    public static PolicyTable getPolicy() {
+        return policy;
+    }
+
+    /**
+     * Sets the precomputed recommendations consulted before searching. By default these are mapped from the file
+     * named by the discozoosolver.policy system property.
+     *
+     * @param table The recommendations, or null to always search.
+     */
+    public static void setPolicy(PolicyTable table) {
+        policy = table;
+    }
+
+    /**
+     * @return The shared cache of recommendations, keyed by the hash of the observations they were made for.
+     */
+    public static TranspositionTable<Recommendation> getRecommendationCache() {
+        return RECOMMENDATIONS;
+    }
+
+    /**
+     * Returns a hash of everything observed so far: the location, the set of animals and the confirmed result of each
+     * cell. Boards which have seen the same observations have the same hash, whatever order they were made in.
+     *
+     * @return The hash of the current observations.
+     */
+    public long getStateHash() {
+        return setupHash ^ observationHash;
+    }
+
+    /**
+     * @return The bitmasks of the current candidates for each animal, indexed in the order the animals were added.
+     * Animals added since the candidates were generated have none.
+     */
+    private int[][] getPlacements() {
+        int[][] result = Arrays.copyOf(placements, animals.size());
+        for (int a = placements.length; a < result.length; a++) {
+            result[a] = new int[0];
+        }
+        return result;
+    }
+
+    /**
+     * Resets the board returning it to an empty state.
+     */
+    public void resetBoard() {
+        clearCells();
+        clearCandidates();
+        clearAnimals();
+        history.clear();
+        step = -1;
+        fireBoardChanged();
+    }
+
+
+    /**
+     * Clears each cell returning them to an empty state.
+     */
+    private void clearCells() {
+        for (Cell cell : cells) {
+            cell.resetCell();
+        }
+        revealed = 0;
+        observationHash = 0;
+    }
+
+    /**
+     * @return The current candidates, grouped by animal in the order the animals were added.
+     */
+    public List<Candidate> getCandidates() {
+        List<Candidate> all = new ArrayList<>(getCandidateCount());
+        for (List<Candidate> options : candidates) {
+            all.addAll(options);
+        }
+        return all;
+    }
+
+    /**
+     * @return The number of current candidates.
+     */
+    private int getCandidateCount() {
+        int count = 0;
+        for (int[] masks : placements) {
+            count += masks.length;
+        }
+        return count;
+    }
+
+    /**
+     * @param animal The index of an animal, in the order the animals were added.
+     * @return The number of current candidates for the animal, or 0 if the candidates have not been generated.
+     */
+    public int getCandidateCount(int animal) {
+        return animal < placements.length ? placements[animal].length : 0;
+    }
+
+    /**
+     * Clears the list of current candidates.
+     */
+    private void clearCandidates() {
+        candidates = new ArrayList<>();
+        placements = new int[0][];
+        remaining = new int[0];
+        compatible = new int[0][][];
+        tables = new PlacementTable[0];
+        animalCounts = new int[0][];
+        ownedCounts = 0;
+        pendingEmpty = 0;
+        pendingAnimals = 0;
+    }
+
+    /**
+     * Clears the list of animals.
+     */
+    private void clearAnimals() {
+        for (Animal animal : animals) {
+            setupHash ^= Zobrist.animalKey(animal.getName());
+        }
+        animals = new ArrayList<>();
+        animalIndices.clear();
+    }
+
+    /**
+     * Registers a listener to be notified after each change to the board.
+     *
+     * @param listener The listener to add.
+     */
+    public void addListener(BoardListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * @param listener The listener to stop notifying.
+     */
+    public void removeListener(BoardListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Notifies every listener that the board has changed.
+     */
+    private void fireBoardChanged() {
+        for (BoardListener listener : listeners) {
+            listener.boardChanged(this);
+        }
+    }
+
+    /**
+     * Add an animal to the current list of animals.
+     *
+     * @param animal the animal to add.
+     */
+    public void addAnimal(Animal animal) {
+        animalIndices.putIfAbsent(animal.getName(), animals.size());
+        animals.add(animal);
+        setupHash ^= Zobrist.animalKey(animal.getName());
+    }
+
+    /**
+     * @return the list of animals on the board.
+     */
+    public List<Animal> getAnimals() {
+        return animals;
+    }
+
+    /**
+     * @return the rule used to choose priority cells.
+     */
+    public PriorityMode getPriorityMode() {
+        return priorityMode;
+    }
+
+    /**
+     * @param priorityMode the rule used to choose priority cells.
+     */
+    public void setPriorityMode(PriorityMode priorityMode) {
+        this.priorityMode = priorityMode;
+    }
+
+    /**
+     * @return the current game location.
+     */
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * @param location the location to set.
+     */
+    public void setLocation(String location) {
+        setupHash ^= Zobrist.locationKey(this.location) ^ Zobrist.locationKey(location);
+        this.location = location;
+    }
+
+    /**
+     * @return the list of cells.
+     */
+    public List<Cell> getCells() {
+        return cells;
+    }
+}
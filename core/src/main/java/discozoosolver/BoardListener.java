@@ -0,0 +1,15 @@
+package discozoosolver;
+
+/**
+ * A listener which is notified whenever the state of a board changes, allowing displays and other observers to follow
+ * the board without the board depending on them.
+ */
+@FunctionalInterface
+public interface BoardListener {
+    /**
+     * Called after the board has finished applying a change, such as a new game or a confirmed hit or miss.
+     *
+     * @param board The board which changed.
+     */
+    void boardChanged(Board board);
+}
@@ -0,0 +1,259 @@
+package discozoosolver;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+/**
+ * An immutable record of a board's state after one step of a game: what each cell displays and the candidates which
+ * remain.
+ * <p>
+ * The board records a snapshot after every step and keeps them as its history, so returning to an earlier step only
+ * makes that snapshot current again. Consecutive snapshots share whatever a step did not change: the candidates, cell
+ * counts and placements of each animal whose candidates were untouched, and the cells' animals if none changed. A click
+ * therefore only adds the parts of the state it changed.
+ * <p>
+ * The cells are held as the board holds them, as flat arrays of animal bitsets and counts and as bitmasks of flags, so
+ * the cells of a snapshot take a few hundred bytes. Animal names are only looked up when a cell's animals are asked
+ * for.
+ * <p>
+ * A board is changed by a single thread, but a snapshot can be read from any thread while the board moves on. This
+ * lets the board be updated away from the user interface, which only ever renders finished snapshots, and lets
+ * recommendations be searched for in the background from the snapshot they were requested for.
+ */
+public final class BoardSnapshot {
+    private static final int CELLS = Constants.BOARD_SIZE * Constants.BOARD_SIZE;
+
+    private final List<String> animalNames;
+    private final int[] cellAnimals;
+    private final int[] counts;
+    private final int known;
+    private final int finalised;
+    private final int priority;
+    private final int revealed;
+    private final List<List<Candidate>> candidates;
+    private final int[][] animalCounts;
+    private final int[][] placements;
+    private final int candidateCount;
+    private final long stateHash;
+
+    /**
+     * None of the arguments may be modified once passed in, as they may be shared with other snapshots.
+     *
+     * @param animalNames    The name of each animal, indexed in the order the animals were added.
+     * @param cellAnimals    The bitset of the animals which could be in each cell, indexed by cell.
+     * @param counts         The number of candidates occupying each cell.
+     * @param known          The bitmask of known cells.
+     * @param finalised      The bitmask of finalised cells.
+     * @param priority       The bitmask of priority cells.
+     * @param revealed       The bitmask of cells which have been clicked.
+     * @param candidates     The candidates for each animal, indexed in the order the animals were added.
+     * @param animalCounts   The number of candidates for each animal occupying each cell, indexed by animal.
+     * @param placements     The candidate bitmasks for each animal.
+     * @param candidateCount The total number of candidates.
+     * @param stateHash      The hash of the board's observations.
+     */
+    BoardSnapshot(List<String> animalNames, int[] cellAnimals, int[] counts, int known, int finalised, int priority, int revealed,
+                  List<List<Candidate>> candidates, int[][] animalCounts, int[][] placements, int candidateCount,
+                  long stateHash) {
+        this.animalNames = animalNames;
+        this.cellAnimals = cellAnimals;
+        this.counts = counts;
+        this.known = known;
+        this.finalised = finalised;
+        this.priority = priority;
+        this.revealed = revealed;
+        this.candidates = candidates;
+        this.animalCounts = animalCounts;
+        this.placements = placements;
+        this.candidateCount = candidateCount;
+        this.stateHash = stateHash;
+    }
+
+    /**
+     * @param cell The index of a cell, y * BOARD_SIZE + x.
+     * @return The animals which could be in the cell, in the order they were first found possible.
+     */
+    public List<String> getAnimals(int cell) {
+        return Collections.unmodifiableList(CellStates.toNames(cellAnimals[cell], animalNames));
+    }
+
+    /**
+     * @param cell The index of a cell.
+     * @return The number of candidates which occupy the cell.
+     */
+    public int getCount(int cell) {
+        return counts[cell];
+    }
+
+    /**
+     * @param cell The index of a cell.
+     * @return Whether the board has determined the cell's contents.
+     */
+    public boolean isKnown(int cell) {
+        return (known & (1 << cell)) != 0;
+    }
+
+    /**
+     * @param cell The index of a cell.
+     * @return Whether the cell's contents have been confirmed or it is known to be empty.
+     */
+    public boolean isFinalised(int cell) {
+        return (finalised & (1 << cell)) != 0;
+    }
+
+    /**
+     * @param cell The index of a cell.
+     * @return Whether the cell is one of those most likely to contain an animal.
+     */
+    public boolean isPriority(int cell) {
+        return (priority & (1 << cell)) != 0;
+    }
+
+    /**
+     * @param cell The index of a cell.
+     * @return Whether the cell has been clicked.
+     */
+    public boolean isRevealed(int cell) {
+        return (revealed & (1 << cell)) != 0;
+    }
+
+    /**
+     * Finds the cells which display differently in this snapshot than in an earlier one, so that only they need to be
+     * rendered again.
+     *
+     * @param previous The snapshot last rendered, or null if none has been.
+     * @return The bitmask of cells whose animals or flags differ.
+     */
+    public int getChangedCells(BoardSnapshot previous) {
+        if (previous == null) {
+            return (1 << CELLS) - 1;
+        }
+        // Animal ids only mean the same thing between snapshots of one game.
+        if (animalNames != previous.animalNames && !animalNames.equals(previous.animalNames)) {
+            return (1 << CELLS) - 1;
+        }
+        int changed = (known ^ previous.known) | (finalised ^ previous.finalised) | (priority ^ previous.priority);
+        if (cellAnimals == previous.cellAnimals) {
+            return changed;
+        }
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (cellAnimals[cell] != previous.cellAnimals[cell]) {
+                changed |= 1 << cell;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * @return The hash of the board's observations when the snapshot was taken.
+     */
+    public long getStateHash() {
+        return stateHash;
+    }
+
+    /**
+     * @return The number of candidates which remained when the snapshot was taken.
+     */
+    public int getCandidateCount() {
+        return candidateCount;
+    }
+
+    /**
+     * @return The name of each animal, indexed in the order the animals were added.
+     */
+    List<String> getAnimalNames() {
+        return animalNames;
+    }
+
+    /**
+     * @return The bitset of the animals which could be in each cell, which must not be modified.
+     */
+    int[] getCellAnimals() {
+        return cellAnimals;
+    }
+
+    /**
+     * @return The number of candidates occupying each cell, which must not be modified.
+     */
+    int[] getCounts() {
+        return counts;
+    }
+
+    /**
+     * @return The bitmask of known cells.
+     */
+    int getKnown() {
+        return known;
+    }
+
+    /**
+     * @return The bitmask of finalised cells.
+     */
+    int getFinalised() {
+        return finalised;
+    }
+
+    /**
+     * @return The bitmask of priority cells.
+     */
+    int getPriority() {
+        return priority;
+    }
+
+    /**
+     * @return The bitmask of cells which have been clicked.
+     */
+    int getRevealed() {
+        return revealed;
+    }
+
+    /**
+     * @return The candidates for each animal, indexed in the order the animals were added to the board.
+     */
+    List<List<Candidate>> getCandidates() {
+        return candidates;
+    }
+
+    /**
+     * @return The number of candidates for each animal occupying each cell, indexed by animal.
+     */
+    int[][] getAnimalCounts() {
+        return animalCounts;
+    }
+
+    /**
+     * @return The candidate bitmasks for each animal, indexed by animal.
+     */
+    int[][] getPlacements() {
+        return placements;
+    }
+
+    /**
+     * @return The exact probabilities for the snapshot's candidates.
+     */
+    public Probabilities getProbabilities() {
+        return Probabilities.calculate(placements);
+    }
+
+    /**
+     * Finds the recommended click for the snapshot, as Board.getRecommendation does.
+     *
+     * @return The recommended click and the expected number of clicks remaining.
+     */
+    public Recommendation getRecommendation() {
+        return getRecommendation(null);
+    }
+
+    /**
+     * Finds the recommended click for the snapshot, stopping early if the search is cancelled.
+     *
+     * @param cancellation Returns true once the recommendation is no longer needed, or null if it should always be
+     *                     found. See ExpectimaxSolver.setCancellation.
+     * @return The recommended click and the expected number of clicks remaining.
+     * @throws java.util.concurrent.CancellationException If the search is cancelled before it finishes.
+     */
+    public Recommendation getRecommendation(BooleanSupplier cancellation) {
+        return Board.recommend(stateHash, placements, revealed, candidateCount, cancellation);
+    }
+}
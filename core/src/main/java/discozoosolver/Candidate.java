@@ -0,0 +1,96 @@
+package discozoosolver;
+
+import java.util.List;
+
+/**
+ * An immutable class representing a potential candidate. A candidate is uniquely defined by an animal and its positions.
+ * <p>
+ * This class does not contain any logic for checking that the positions for a candidate comply with the pattern for an
+ * animal. It is expected that this is done when the candidate is created.
+ * <p>
+ * For example take a Cockatoo at position (2, 1). The pattern for a cockatoo is (0, 0), (1, 1) and (1, 2). The
+ * candidate then occupies cells (2, 1), (3, 2) and (3, 3).
+ * <p>
+ * Alongside the list of blocks each candidate stores its position as a bitmask over the board, with bit
+ * (y * BOARD_SIZE + x) set for each occupied cell. The board uses this mask for all of its containment and overlap
+ * checks so that they reduce to a single bitwise operation.
+ */
+public class Candidate {
+    private final Animal animal;
+    private final List<Block> position;
+    private final int mask;
+
+    /**
+     * Constructor for Candidate which sets the animal and its position as provided.
+     *
+     * @param animal   The animal for which this is a candidate.
+     * @param position The list of cell positions occupied by this candidate.
+     */
+    public Candidate(Animal animal, List<Block> position) {
+        this.animal = animal;
+        this.position = position;
+        this.mask = createMask(position);
+    }
+
+    /**
+     * Constructor for Candidate used when the bitmask of the position is already known, such as when the position is
+     * taken from a placement table.
+     *
+     * @param animal   The animal for which this is a candidate.
+     * @param position The list of cell positions occupied by this candidate.
+     * @param mask     The bitmask of cell positions occupied by this candidate.
+     */
+    Candidate(Animal animal, List<Block> position, int mask) {
+        this.animal = animal;
+        this.position = position;
+        this.mask = mask;
+    }
+
+    /**
+     * Creates the board bitmask for the given list of blocks.
+     *
+     * @param position The list of cell positions.
+     * @return The bitmask with a bit set for each cell in the position.
+     */
+    private static int createMask(List<Block> position) {
+        int result = 0;
+        for (Block block : position) {
+            result |= block.toMask();
+        }
+        return result;
+    }
+
+    /**
+     * @return the animal for which this is a candidate.
+     */
+    public Animal getAnimal() {
+        return animal;
+    }
+
+    /**
+     * @return The list of cell positions occupied by this candidate.
+     */
+    public List<Block> getPosition() {
+        return position;
+    }
+
+    /**
+     * @return The bitmask of cell positions occupied by this candidate.
+     */
+    public int getMask() {
+        return mask;
+    }
+
+    /**
+     * @param block The block to check.
+     * @return true if this candidate occupies the given block.
+     */
+    public boolean contains(Block block) {
+        return (mask & block.toMask()) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return animal.getName() + ": " + position;
+    }
+}
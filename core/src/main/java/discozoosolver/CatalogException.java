@@ -0,0 +1,32 @@
+package discozoosolver;
+
+import java.io.IOException;
+
+/**
+ * Thrown when a catalog of game data is not well formed, or describes a location, animal or pattern which the solver
+ * cannot use. The message names the catalog and the line on which the problem was found.
+ */
+public class CatalogException extends IOException {
+    private static final long serialVersionUID = 1L;
+    private final int lineNumber;
+
+    /**
+     * Sole constructor for CatalogException.
+     *
+     * @param source     The name of the catalog.
+     * @param lineNumber The line on which the problem was found, or -1 if it is not known.
+     * @param message    A description of the problem.
+     * @param cause      The underlying exception, or null if there is none.
+     */
+    public CatalogException(String source, int lineNumber, String message, Throwable cause) {
+        super(source + (lineNumber >= 0 ? ":" + lineNumber : "") + ": " + message, cause);
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * @return The line on which the problem was found, or -1 if it is not known.
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+}
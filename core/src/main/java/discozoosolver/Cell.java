@@ -1,92 +1,89 @@
 package discozoosolver;
 
-import ui.CellDisplay;
-import ui.SolverApp;
-
-import java.util.ArrayList;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * A class representing a cell on the board. Each cell has x and y coordinates, a count of the number of potential
  * candidates, a set of animals which could be found and a group of boolean flags.
  * <p>
+ * A cell is a view of one index of a CellStates, which holds the state of every cell of its board in flat arrays. A
+ * cell created on its own has a CellStates of its own.
+ * <p>
  * Flags:
  * - Finalised: the user has confirmed its contents.
  * - Known: the board has determined the cells contents.
  * - Priority: the board has determined it as the best cell to choose.
  * If a cell has been finalised, it cannot be known or a priority. If it is known, it cannot be a priority.
  * <p>
- * The cell also has references to the display class linked to this cell, as well as the solver which created it.
+ * Cells hold state only. Displays observe the board which owns them and render each cell from its state.
  */
 public class Cell {
-    private Set<String> animals;
+    private final CellStates states;
+    private final int index;
     private final int x;
     private final int y;
-    private int count;
-    private Boolean finalised;
-    private Boolean known;
-    private Boolean priority;
-    private CellDisplay cellDisplay;
-    private SolverApp solver;
 
     /**
-     * Sole constructor for Cell which sets the x and y coordinates and the associated solver as provided.
+     * Sole public constructor for Cell which sets the x and y coordinates as provided.
      *
-     * @param x      The x coordinate of the cell.
-     * @param y      The y coordinate of the cell.
-     * @param solver The solver instance which created this cell.
+     * @param x The x coordinate of the cell.
+     * @param y The y coordinate of the cell.
      */
-    public Cell(int x, int y, SolverApp solver) {
-        animals = new LinkedHashSet<>();
-        this.x = x;
-        this.y = y;
-        count = 0;
-        finalised = false;
-        known = false;
-        priority = false;
-        cellDisplay = new CellDisplay(solver, this);
-        this.solver = solver;
+    public Cell(int x, int y) {
+        this(new CellStates(1), 0, x, y);
     }
 
     /**
-     * Confirms a hit for this cell in the solver for the given animal.
+     * Constructor for Cell used by the board, whose cells share their states.
      *
-     * @param animal The animal which was hit.
+     * @param states The states of the cell's board.
+     * @param index  The index of the cell in the states.
+     * @param x      The x coordinate of the cell.
+     * @param y      The y coordinate of the cell.
      */
-    public void confirmHit(String animal) {
-        solver.setConsole(animal + " hit at " + x + ", " + y);
-        solver.confirmHit(new Block(x, y), animal);
+    Cell(CellStates states, int index, int x, int y) {
+        this.states = states;
+        this.index = index;
+        this.x = x;
+        this.y = y;
     }
 
     /**
-     * Confirms a miss for this cell in the solver.
+     * @return The block at this cell's coordinates.
      */
-    public void confirmMiss() {
-        solver.setConsole("Miss at " + x + ", " + y);
-        solver.confirmMiss(new Block(x, y));
+    public Block getBlock() {
+        return new Block(x, y);
     }
 
     /**
      * @return The set of animals as a list.
      */
     public List<String> getAnimals() {
-        return new ArrayList<>(animals);
+        return states.getAnimalList(index);
     }
 
     /**
      * @param animal The animal to add to this cell.
      */
     public void addAnimal(String animal) {
-        animals.add(animal);
+        states.addAnimal(index, states.idOf(animal));
+    }
+
+    /**
+     * @param animal The animal to remove from this cell.
+     */
+    public void removeAnimal(String animal) {
+        int id = states.getAnimalNames().indexOf(animal);
+        if (id >= 0) {
+            states.removeAnimal(index, id);
+        }
     }
 
     /**
      * Clear the set of animals which can be found in this cell.
      */
     public void clearAnimals() {
-        animals = new LinkedHashSet<>();
+        states.clearAnimals(index);
     }
 
     /**
@@ -107,43 +104,50 @@ public class Cell {
      * @return The number of potential candidates for the cell.
      */
     public int getCount() {
-        return count;
+        return states.getCount(index);
     }
 
     /**
      * Increments the potential candidate count for the cell.
      */
     public void incrementCount() {
-        count++;
+        states.incrementCount(index);
+    }
+
+    /**
+     * Decrements the potential candidate count for the cell.
+     */
+    public void decrementCount() {
+        states.decrementCount(index);
     }
 
     /**
      * Clears the potential candidate count for the cell.
      */
     public void clearCount() {
-        this.count = 0;
+        states.setCount(index, 0);
     }
 
     /**
      * @return The finalised status of the cell.
      */
     public Boolean getFinalised() {
-        return finalised;
+        return (states.getFinalised() & (1 << index)) != 0;
     }
 
     /**
      * @param finalised The finalised status of the cell.
      */
     public void setFinalised(Boolean finalised) {
-        this.finalised = finalised;
+        states.setFinalised(index, finalised);
     }
 
     /**
      * Sets the cell to finalised if the set of discoverable animals is empty.
      */
     public void checkIfEmpty() {
-        if (animals.isEmpty()) {
-            this.finalised = true;
+        if (states.getAnimals(index) == 0) {
+            setFinalised(true);
         }
     }
 
@@ -151,53 +155,39 @@ public class Cell {
      * @return The known status of the cell.
      */
     public Boolean getKnown() {
-        return known;
+        return (states.getKnown() & (1 << index)) != 0;
     }
 
     /**
      * @param known The known status of the cell.
      */
     public void setKnown(Boolean known) {
-        this.known = known;
+        states.setKnown(index, known);
     }
 
     /**
      * @return The priority status of the cell.
      */
     public Boolean getPriority() {
-        return priority;
+        return (states.getPriority() & (1 << index)) != 0;
     }
 
     /**
      * @param priority The priority status of the cell.
      */
     public void setPriority(Boolean priority) {
-        this.priority = priority;
-    }
-
-    /**
-     * @return The display class associated to this cell.
-     */
-    public CellDisplay getDisplay() {
-        return cellDisplay;
-    }
-
-    /**
-     * Updates the cell display.
-     */
-    public void updateDisplay() {
-        cellDisplay.populateCell();
+        int bit = 1 << index;
+        states.setPriority(priority ? states.getPriority() | bit : states.getPriority() & ~bit);
     }
 
     /**
      * Resets the cell to its initial state.
      */
     public void resetCell() {
-        animals = new LinkedHashSet<>();
-        count = 0;
-        known = false;
-        finalised = false;
-        priority = false;
-        cellDisplay.clearContents();
+        clearAnimals();
+        clearCount();
+        setKnown(false);
+        setFinalised(false);
+        setPriority(false);
     }
 }
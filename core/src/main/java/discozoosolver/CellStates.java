@@ -0,0 +1,267 @@
+package discozoosolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The state of a group of cells, held in flat primitive arrays rather than in an object per cell. Cells are indexed
+ * from 0 and each Cell is a view of one index.
+ * <p>
+ * The animals which could be in a cell are a bitset over small animal ids, which index the names the states were
+ * given. The board numbers its animals in the order they were added, so listing a cell's animals in id order lists them
+ * in the order they were first found possible. The finalised, known and priority flags of every cell are packed into
+ * one bitmask each.
+ * <p>
+ * Nothing is allocated as cells change, so clicks do not churn through sets and boxed flags, and the whole state can
+ * be copied into a snapshot as a handful of small arrays.
+ */
+final class CellStates {
+    /* Animal ids index the bits of an int */
+    static final int MAX_ANIMALS = Integer.SIZE;
+
+    private final int size;
+    private final List<String> animalNames;
+    private final int[] animals;
+    private final int[] counts;
+    private int finalised;
+    private int known;
+    private int priority;
+
+    /**
+     * Sole constructor for CellStates which creates empty cells with no animal names.
+     *
+     * @param size The number of cells, at most 32.
+     */
+    CellStates(int size) {
+        this.size = size;
+        this.animalNames = new ArrayList<>();
+        this.animals = new int[size];
+        this.counts = new int[size];
+    }
+
+    /**
+     * @return The number of cells.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Names the animals by id. Every cell must be free of animals, as the ids they hold would otherwise change meaning.
+     *
+     * @param names The name of each animal, indexed by id.
+     */
+    void setAnimalNames(List<String> names) {
+        if (names.size() > MAX_ANIMALS) {
+            throw new IllegalArgumentException("At most " + MAX_ANIMALS + " animals can be held");
+        }
+        animalNames.clear();
+        animalNames.addAll(names);
+    }
+
+    /**
+     * @return The name of each animal, indexed by id.
+     */
+    List<String> getAnimalNames() {
+        return Collections.unmodifiableList(animalNames);
+    }
+
+    /**
+     * Finds the id of an animal, giving it the next id if it has not been named yet.
+     *
+     * @param name The name of the animal.
+     * @return The animal's id.
+     */
+    int idOf(String name) {
+        int id = animalNames.indexOf(name);
+        if (id < 0) {
+            if (animalNames.size() == MAX_ANIMALS) {
+                throw new IllegalStateException("At most " + MAX_ANIMALS + " animals can be held");
+            }
+            id = animalNames.size();
+            animalNames.add(name);
+        }
+        return id;
+    }
+
+    /**
+     * @param cell The index of a cell.
+     * @return The bitset of the ids of the animals which could be in the cell.
+     */
+    int getAnimals(int cell) {
+        return animals[cell];
+    }
+
+    /**
+     * @param cell The index of a cell.
+     * @return The names of the animals which could be in the cell, in id order.
+     */
+    List<String> getAnimalList(int cell) {
+        return toNames(animals[cell], animalNames);
+    }
+
+    /**
+     * @param bits  A bitset of animal ids.
+     * @param names The name of each animal, indexed by id.
+     * @return The names of the animals in the bitset, in id order.
+     */
+    static List<String> toNames(int bits, List<String> names) {
+        List<String> result = new ArrayList<>(Integer.bitCount(bits));
+        for (int remaining = bits; remaining != 0; remaining &= remaining - 1) {
+            result.add(names.get(Integer.numberOfTrailingZeros(remaining)));
+        }
+        return result;
+    }
+
+    /**
+     * @param cell The index of a cell.
+     * @param id   The id of the animal to add to the cell.
+     */
+    void addAnimal(int cell, int id) {
+        animals[cell] |= 1 << id;
+    }
+
+    /**
+     * @param cell The index of a cell.
+     * @param id   The id of the animal to remove from the cell.
+     */
+    void removeAnimal(int cell, int id) {
+        animals[cell] &= ~(1 << id);
+    }
+
+    /**
+     * @param cell The index of a cell whose animals to clear.
+     */
+    void clearAnimals(int cell) {
+        animals[cell] = 0;
+    }
+
+    /**
+     * @param cell The index of a cell.
+     * @return The number of potential candidates for the cell.
+     */
+    int getCount(int cell) {
+        return counts[cell];
+    }
+
+    /**
+     * @param cell  The index of a cell.
+     * @param count The number of potential candidates for the cell.
+     */
+    void setCount(int cell, int count) {
+        counts[cell] = count;
+    }
+
+    /**
+     * @param cell The index of a cell.
+     * @return The cell's new count, after incrementing it.
+     */
+    int incrementCount(int cell) {
+        return ++counts[cell];
+    }
+
+    /**
+     * @param cell The index of a cell.
+     * @return The cell's new count, after decrementing it.
+     */
+    int decrementCount(int cell) {
+        return --counts[cell];
+    }
+
+    /**
+     * @return The bitmask of finalised cells.
+     */
+    int getFinalised() {
+        return finalised;
+    }
+
+    /**
+     * @return The bitmask of known cells.
+     */
+    int getKnown() {
+        return known;
+    }
+
+    /**
+     * @return The bitmask of priority cells.
+     */
+    int getPriority() {
+        return priority;
+    }
+
+    /**
+     * @param cell      The index of a cell.
+     * @param finalised The finalised status of the cell.
+     */
+    void setFinalised(int cell, boolean finalised) {
+        this.finalised = with(this.finalised, cell, finalised);
+    }
+
+    /**
+     * @param cell  The index of a cell.
+     * @param known The known status of the cell.
+     */
+    void setKnown(int cell, boolean known) {
+        this.known = with(this.known, cell, known);
+    }
+
+    /**
+     * Sets the priority status of every cell at once.
+     *
+     * @param priority The bitmask of priority cells.
+     */
+    void setPriority(int priority) {
+        this.priority = priority;
+    }
+
+    /**
+     * @param mask  A bitmask of cells.
+     * @param cell  The index of a cell.
+     * @param value Whether the cell's bit should be set.
+     * @return The bitmask with the cell's bit set or cleared.
+     */
+    private static int with(int mask, int cell, boolean value) {
+        return value ? mask | (1 << cell) : mask & ~(1 << cell);
+    }
+
+    /**
+     * Sets every cell to the state recorded in a snapshot.
+     *
+     * @param animals   The bitset of animal ids for each cell.
+     * @param counts    The number of potential candidates for each cell.
+     * @param known     The bitmask of known cells.
+     * @param finalised The bitmask of finalised cells.
+     * @param priority  The bitmask of priority cells.
+     */
+    void restore(int[] animals, int[] counts, int known, int finalised, int priority) {
+        System.arraycopy(animals, 0, this.animals, 0, size);
+        System.arraycopy(counts, 0, this.counts, 0, size);
+        this.known = known;
+        this.finalised = finalised;
+        this.priority = priority;
+    }
+
+    /**
+     * @return A copy of the bitset of animal ids for each cell.
+     */
+    int[] copyAnimals() {
+        return animals.clone();
+    }
+
+    /**
+     * @return A copy of the number of potential candidates for each cell.
+     */
+    int[] copyCounts() {
+        return counts.clone();
+    }
+
+    /**
+     * @param animals The bitset of animal ids for each cell.
+     * @return Whether every cell holds exactly the given animals.
+     */
+    boolean hasAnimals(int[] animals) {
+        return Arrays.equals(this.animals, animals);
+    }
+}
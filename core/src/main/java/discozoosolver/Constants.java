@@ -0,0 +1,13 @@
+package discozoosolver;
+
+public final class Constants {
+    /* Size of the game board */
+    public static final int BOARD_SIZE = 5;
+    /* Number of clicks available in a game before bux must be spent on more */
+    public static final int CLICK_BUDGET = 10;
+
+    private Constants() {
+        throw new AssertionError();
+    }
+
+}
@@ -0,0 +1,678 @@
+package discozoosolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * A search based solver which recommends the click that minimises the expected number of clicks needed to uncover
+ * every animal.
+ * <p>
+ * The solver works on the layouts of the candidates it is given, where a layout is one candidate per animal with no
+ * two overlapping, and treats every layout as equally likely. Clicking a cell either misses or hits one of the
+ * animals, which splits the layouts into one group per result. The value of a state is then the minimum, over every
+ * cell which could be clicked, of one plus the expected value of the resulting states.
+ * <p>
+ * A few observations keep the search small:
+ * - A cell which holds the same animal in every layout must be clicked eventually and tells us nothing, so it is
+ * counted and revealed without branching.
+ * - A cell which is a hit in every layout must also be clicked eventually, so clicking it first is never worse and it
+ * is the only move considered.
+ * - A cell which is empty in every layout is never worth clicking.
+ * - Every remaining animal cell needs one click, so one plus the expected number of unrevealed animal cells after a
+ * move is a lower bound on its value. Moves are tried from most to least likely to hit and the search stops once this
+ * bound reaches the best value found.
+ * Once the certain cells have been revealed, the revealed cells which matter are exactly the cells holding the same
+ * animal in every remaining layout, so a state is identified by its set of remaining layouts alone. Many different
+ * orders of clicks lead to the same set, so states are memoised by it in a bounded transposition table, using a hash
+ * built by xor-ing a random key for each layout.
+ * <p>
+ * The first choice of click is searched in parallel on a fork-join pool. The most likely move is solved first to set
+ * a bound, then every other move is evaluated as its own task against the best value found so far. Search states are
+ * immutable once built, so the only state shared between tasks is the transposition table, which is lock free, and
+ * the best value, which is updated atomically.
+ * <p>
+ * A search can be cancelled, such as when a newer board state makes it irrelevant. The cancellation is checked as each
+ * state is entered, so a cancelled search stops within one node's work and throws a CancellationException. Only
+ * completed states are remembered, so the table is left consistent.
+ * <p>
+ * The search is exponential in the number of animals and is not bounded by default. On a single core it enters roughly
+ * 300,000 states a second. Most two animal openings take under a million states, but pairs of large or mythical animals
+ * take several million, and some more than could be measured. The opening of a three animal board can take tens of
+ * millions, over two minutes. A search can therefore be given a budget of states. Once the budget runs out the search
+ * stops as if cancelled, and the most likely cell is recommended instead, marked as not exact.
+ */
+public class ExpectimaxSolver {
+    private static final int CELLS = Constants.BOARD_SIZE * Constants.BOARD_SIZE;
+    private static final double EPSILON = 1e-9;
+    /* The transposition table is sized by the number of pairs of layouts, which roughly tracks the states searched */
+    private static final int STATES_PER_LAYOUT_PAIR = 8;
+    private static final int MIN_TABLE_CAPACITY = 1 << 10;
+    private static final int MAX_TABLE_CAPACITY = 1 << 18;
+
+    private final int animalCount;
+    private final int[] layouts;
+    private final int[] unions;
+    private final long[] layoutKeys;
+    private final TranspositionTable<Result> results;
+    private final ForkJoinPool pool;
+    private final AtomicLong nodes = new AtomicLong();
+    private volatile BooleanSupplier cancellation;
+    private volatile long nodeLimit = Long.MAX_VALUE;
+    private volatile boolean exhausted;
+
+    /**
+     * Constructor for ExpectimaxSolver which enumerates every layout of the given candidates and sizes the
+     * transposition table by the number of layouts. The search runs on the common fork-join pool.
+     *
+     * @param placements The candidate bitmasks for each animal, indexed by animal. These are expected to already agree
+     *                   with any confirmed hits and misses.
+     */
+    public ExpectimaxSolver(int[][] placements) {
+        this(new LayoutBuilder(placements), placements.length, 0, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor for ExpectimaxSolver which enumerates every layout of the given candidates and bounds the number of
+     * states remembered by the search.
+     *
+     * @param placements    The candidate bitmasks for each animal, indexed by animal. These are expected to already
+     *                      agree with any confirmed hits and misses.
+     * @param tableCapacity The number of evaluated states to remember. Older states are evicted once it is reached.
+     * @param pool          The pool on which to search the first choice of click, or null to search on the calling
+     *                      thread alone.
+     */
+    public ExpectimaxSolver(int[][] placements, int tableCapacity, ForkJoinPool pool) {
+        this(new LayoutBuilder(placements), placements.length, tableCapacity, pool);
+    }
+
+    /**
+     * @param builder       The layouts of the candidates.
+     * @param animalCount   The number of animals.
+     * @param tableCapacity The number of evaluated states to remember, or 0 to size the table by the number of layouts.
+     * @param pool          The pool on which to search the first choice of click, or null to search on the calling
+     *                      thread alone.
+     */
+    private ExpectimaxSolver(LayoutBuilder builder, int animalCount, int tableCapacity, ForkJoinPool pool) {
+        this.animalCount = animalCount;
+        this.layouts = builder.getLayouts();
+        this.unions = builder.getUnions();
+        this.layoutKeys = new long[unions.length];
+        SplittableRandom random = new SplittableRandom(unions.length);
+        for (int i = 0; i < layoutKeys.length; i++) {
+            layoutKeys[i] = random.nextLong();
+        }
+        this.results = new TranspositionTable<>(tableCapacity > 0 ? tableCapacity : tableCapacityFor(unions.length));
+        this.pool = pool;
+    }
+
+    /**
+     * @param layoutCount The number of layouts to search.
+     * @return The number of states to remember when searching them.
+     */
+    private static int tableCapacityFor(int layoutCount) {
+        long states = (long) layoutCount * layoutCount * STATES_PER_LAYOUT_PAIR;
+        return (int) Math.max(MIN_TABLE_CAPACITY, Math.min(MAX_TABLE_CAPACITY, states));
+    }
+
+    /**
+     * Sets the condition under which a search should stop early. It is checked as each search state is entered, from
+     * whichever thread is searching, so it should be cheap and thread safe.
+     *
+     * @param cancellation Returns true once the search is no longer needed, or null if it should always finish.
+     */
+    public void setCancellation(BooleanSupplier cancellation) {
+        this.cancellation = cancellation;
+    }
+
+    /**
+     * Sets the number of states each search may enter before it gives up and recommends the most likely cell.
+     *
+     * @param nodeLimit The number of states, or Long.MAX_VALUE for the search to always finish.
+     */
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Recommends the next click given the cells which have already been revealed.
+     *
+     * @param revealed The bitmask of cells which have already been clicked.
+     * @return The recommended click, or a recommendation with no block if every animal has been uncovered or there are
+     * no valid layouts. If the search runs out of budget this is the most likely cell and is not exact.
+     * @throws CancellationException If the search is cancelled before it finishes.
+     */
+    public Recommendation recommend(int revealed) {
+        int layoutCount = unions.length;
+        if (layoutCount == 0) {
+            return new Recommendation(null, 0);
+        }
+        int[] subset = new int[layoutCount];
+        long hash = 0;
+        for (int i = 0; i < layoutCount; i++) {
+            subset[i] = i;
+            hash ^= layoutKeys[i];
+        }
+
+        State state = new State(subset, hash, revealed);
+        int forced = state.revealCertainCells();
+        nodes.set(0);
+        exhausted = false;
+        Result result;
+        try {
+            result = pool == null ? solve(state, Double.POSITIVE_INFINITY) : solveInParallel(state);
+        } catch (CancellationException e) {
+            if (!exhausted) {
+                throw e;
+            }
+            result = mostLikely(state);
+        }
+        if (result.move >= 0) {
+            return new Recommendation(toBlock(result.move), forced + result.value, result.exact);
+        }
+
+        // Only cells which are certain to hold a known animal remain, so any of them may be clicked next.
+        int remaining = unions[0] & ~revealed;
+        if (remaining == 0) {
+            return new Recommendation(null, 0);
+        }
+        return new Recommendation(toBlock(Integer.numberOfTrailingZeros(remaining)), forced);
+    }
+
+    /**
+     * @return The number of evaluated states currently remembered by the search.
+     */
+    public int getStateCount() {
+        return results.size();
+    }
+
+    /**
+     * @return The table of evaluated states, whose counters show how well it is sized for the search.
+     */
+    public TranspositionTable<?> getTable() {
+        return results;
+    }
+
+    /**
+     * @return The number of layouts of the candidates given to the solver.
+     */
+    public int getLayoutCount() {
+        return unions.length;
+    }
+
+    /**
+     * Finds the best move for a state whose certain cells have already been revealed.
+     * <p>
+     * The search is bounded by beta: once it is clear that the state's value is at least beta the search stops and a
+     * lower bound of at least beta is returned instead of the exact value. Results are only exact when below beta.
+     *
+     * @param state The state to solve.
+     * @param beta  The value at or above which the exact result is not needed.
+     * @return The best move and the expected number of clicks to finish, not including the revealed certain cells.
+     */
+    private Result solve(State state, double beta) {
+        checkCancelled();
+        int size = state.subset.length;
+        if (size == 1) {
+            return new Result(-1, Integer.bitCount(unions[state.subset[0]] & ~state.revealed), true);
+        }
+
+        Result cached = results.get(state.hash);
+        if (cached != null && (cached.exact || cached.value >= beta)) {
+            return cached;
+        }
+
+        MoveList moves = new MoveList(state);
+        if (!moves.forced) {
+            double stateBound = moves.stateBound();
+            if (stateBound >= beta) {
+                Result bound = new Result(-1, stateBound, false);
+                results.put(state.hash, size, bound);
+                return bound;
+            }
+        }
+
+        // Moves which are cut short give a lower bound on their value, the smallest of which is kept in case no move
+        // is solved exactly.
+        Result best = new Result(-1, 0, moves.count == 0);
+        double lowerBound = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < moves.count; i++) {
+            int cell = moves.cells[i];
+            double bound = best.exact ? Math.min(beta, best.value) : beta;
+            double moveBound = moves.moveBound(cell);
+            if (moveBound >= bound - EPSILON) {
+                lowerBound = Math.min(lowerBound, moveBound);
+                break;
+            }
+            Move move = new Move(state, cell);
+            Result result = move.lowerBound >= bound ? new Result(cell, move.lowerBound, false) : evaluate(move, bound);
+            if (!result.exact) {
+                lowerBound = Math.min(lowerBound, result.value);
+            } else if (!best.exact || result.value < best.value) {
+                best = result;
+            }
+        }
+        if (!best.exact) {
+            best = new Result(-1, lowerBound, false);
+        }
+        results.put(state.hash, size, best);
+        return best;
+    }
+
+    /**
+     * Finds the best move for a state whose certain cells have already been revealed, evaluating its moves in
+     * parallel. Moves are solved exactly unless they are certain to be worse than the best move found so far.
+     *
+     * @param state The state to solve.
+     * @return The best move and the expected number of clicks to finish, not including the revealed certain cells.
+     */
+    private Result solveInParallel(State state) {
+        MoveList moves = state.subset.length == 1 ? null : new MoveList(state);
+        if (moves == null || moves.count < 2) {
+            return solve(state, Double.POSITIVE_INFINITY);
+        }
+
+        // The most likely move is usually close to the best, so solving it first gives the other tasks a tight bound.
+        Result first = evaluate(new Move(state, moves.cells[0]), Double.POSITIVE_INFINITY);
+        AtomicLong bestValue = new AtomicLong(Double.doubleToLongBits(first.value));
+        List<ForkJoinTask<Result>> tasks = new ArrayList<>();
+        for (int i = 1; i < moves.count; i++) {
+            int cell = moves.cells[i];
+            tasks.add(pool.submit(() -> {
+                // Moves which tie with the best are still solved exactly so the choice between them does not depend
+                // on the order the tasks ran in.
+                double bound = Double.longBitsToDouble(bestValue.get()) + EPSILON;
+                double moveBound = moves.moveBound(cell);
+                if (moveBound >= bound - EPSILON) {
+                    return new Result(cell, moveBound, false);
+                }
+                Move move = new Move(state, cell);
+                Result result = move.lowerBound >= bound ? new Result(cell, move.lowerBound, false)
+                        : evaluate(move, bound);
+                if (result.exact) {
+                    bestValue.accumulateAndGet(Double.doubleToLongBits(result.value),
+                            (a, b) -> Double.longBitsToDouble(a) <= Double.longBitsToDouble(b) ? a : b);
+                }
+                return result;
+            }));
+        }
+
+        Result best = first;
+        for (ForkJoinTask<Result> task : tasks) {
+            Result result = task.join();
+            if (result.exact && result.value < best.value - EPSILON) {
+                best = result;
+            }
+        }
+        results.put(state.hash, state.subset.length, best);
+        return best;
+    }
+
+    /**
+     * Calculates the expected number of clicks to finish when making the given move, weighting each possible result
+     * by the proportion of layouts which produce it. Results are solved from most to least likely and the calculation
+     * stops as soon as the solved results plus the lower bounds of the rest reach the bound.
+     *
+     * @param move  The move to evaluate.
+     * @param bound The value at or above which the exact result is not needed.
+     * @return The move and its value, which is exact if below the bound and otherwise may be a lower bound.
+     */
+    private Result evaluate(Move move, double bound) {
+        double limit = bound - 1;
+        double remaining = move.lowerBound - 1;
+        double total = 0;
+        for (int i = 0; i < move.resultCount; i++) {
+            int index = move.order[i];
+            State result = move.next[index];
+            double probability = result.subset.length / move.size;
+            remaining -= move.lowerBounds[index];
+            Result solved = move.known[index];
+            if (solved == null || !solved.exact) {
+                double childBeta = (limit - total - remaining) / probability - move.forced[index];
+                solved = solve(result, childBeta);
+            }
+            total += probability * (move.forced[index] + solved.value);
+            if (!solved.exact || total + remaining >= limit) {
+                return new Result(move.cell, 1 + total + remaining, false);
+            }
+        }
+        return new Result(move.cell, 1 + total, true);
+    }
+
+    /**
+     * Chooses the cell most likely to hit in a state whose search ran out of budget, taking the first in reading order
+     * on ties.
+     *
+     * @param state The state whose certain cells have been revealed.
+     * @return The cell and a lower bound on its value, or no move if only certain cells remain.
+     */
+    private Result mostLikely(State state) {
+        MoveList moves = new MoveList(state);
+        if (moves.count == 0) {
+            return new Result(-1, 0, true);
+        }
+        return new Result(moves.cells[0], moves.moveBound(moves.cells[0]), false);
+    }
+
+    /**
+     * Counts a state entered by the search against its budget.
+     *
+     * @throws CancellationException If the search has been cancelled or has run out of budget.
+     */
+    private void checkCancelled() {
+        if (nodes.incrementAndGet() > nodeLimit) {
+            exhausted = true;
+            throw new CancellationException("Search ran out of budget");
+        }
+        BooleanSupplier condition = cancellation;
+        if (condition != null && condition.getAsBoolean()) {
+            throw new CancellationException("Search was cancelled");
+        }
+    }
+
+    /**
+     * Sorts the first count moves in descending order of hit count. There are at most 25 moves so an insertion sort
+     * is used.
+     *
+     * @param moves     The cell indices to sort.
+     * @param count     The number of moves.
+     * @param hitCounts The number of layouts in which each cell is a hit.
+     */
+    private static void sortByCount(int[] moves, int count, int[] hitCounts) {
+        for (int i = 1; i < count; i++) {
+            int move = moves[i];
+            int j = i - 1;
+            while (j >= 0 && hitCounts[moves[j]] < hitCounts[move]) {
+                moves[j + 1] = moves[j];
+                j--;
+            }
+            moves[j + 1] = move;
+        }
+    }
+
+    /**
+     * @param cell The index of a cell.
+     * @return The block at that index.
+     */
+    private static Block toBlock(int cell) {
+        return new Block(cell % Constants.BOARD_SIZE, cell / Constants.BOARD_SIZE);
+    }
+
+    /**
+     * A search state made up of the layouts which are still possible and the cells revealed so far.
+     */
+    private class State {
+        private final int[] subset;
+        private final long hash;
+        private int revealed;
+        private int[] counts;
+
+        /**
+         * @param subset   The indices of the layouts which are still possible, in ascending order.
+         * @param hash     The xor of the keys of the layouts in the subset.
+         * @param revealed The bitmask of cells which have been revealed.
+         */
+        State(int[] subset, long hash, int revealed) {
+            this.subset = subset;
+            this.hash = hash;
+            this.revealed = revealed;
+        }
+
+        /**
+         * @return The number of layouts in which each cell contains an animal. This does not depend on which cells
+         * are revealed so it is only calculated once.
+         */
+        int[] countHits() {
+            if (counts == null) {
+                counts = new int[CELLS];
+                for (int layout : subset) {
+                    for (int bits = unions[layout]; bits != 0; bits &= bits - 1) {
+                        counts[Integer.numberOfTrailingZeros(bits)]++;
+                    }
+                }
+            }
+            return counts;
+        }
+
+        /**
+         * Calculates a lower bound on the expected number of clicks to finish, multiplied by the number of layouts.
+         * Every unrevealed animal cell needs a click. On top of that, if there are several layouts and no cell is a
+         * hit in all of them without holding the same animal in all of them, then some click must be made on a cell
+         * which is not certain to hit, and the most likely of these still misses with the remaining probability.
+         *
+         * @return The lower bound multiplied by the number of layouts.
+         */
+        double lowerBound() {
+            int[] counts = countHits();
+            int size = subset.length;
+            double total = 0;
+            int maxCount = 0;
+            int certain = 0;
+            for (int cell = 0; cell < CELLS; cell++) {
+                if (((revealed >>> cell) & 1) != 0) {
+                    continue;
+                }
+                total += counts[cell];
+                if (counts[cell] == size) {
+                    certain |= 1 << cell;
+                } else if (counts[cell] > maxCount) {
+                    maxCount = counts[cell];
+                }
+            }
+            if (size > 1 && certain == (certain & commonCells())) {
+                total += size - maxCount;
+            }
+            return total;
+        }
+
+        /**
+         * @return The bitmask of unrevealed cells which contain the same animal in every layout.
+         */
+        int commonCells() {
+            int cells = 0;
+            for (int a = 0; a < animalCount; a++) {
+                int common = ~0;
+                for (int layout : subset) {
+                    common &= layouts[layout * animalCount + a];
+                }
+                cells |= common;
+            }
+            return cells & ~revealed;
+        }
+
+        /**
+         * Reveals every unrevealed cell which contains the same animal in every layout.
+         *
+         * @return The number of cells revealed.
+         */
+        int revealCertainCells() {
+            int common = commonCells();
+            revealed |= common;
+            return Integer.bitCount(common);
+        }
+
+        /**
+         * Splits the layouts by the result of clicking the given cell.
+         *
+         * @param cell The index of the cell clicked.
+         * @return The state following a miss at index 0 and a hit on each animal at index animal + 1. An entry is null
+         * if no layout produces that result.
+         */
+        State[] split(int cell) {
+            int bit = 1 << cell;
+            int[] sizes = new int[animalCount + 1];
+            long[] hashes = new long[animalCount + 1];
+            int[] results = new int[subset.length];
+            for (int i = 0; i < subset.length; i++) {
+                int result = 0;
+                int layout = subset[i];
+                if ((unions[layout] & bit) != 0) {
+                    for (int a = 0; a < animalCount; a++) {
+                        if ((layouts[layout * animalCount + a] & bit) != 0) {
+                            result = a + 1;
+                            break;
+                        }
+                    }
+                }
+                results[i] = result;
+                sizes[result]++;
+                hashes[result] ^= layoutKeys[layout];
+            }
+
+            State[] next = new State[animalCount + 1];
+            for (int result = 0; result <= animalCount; result++) {
+                if (sizes[result] == 0) {
+                    continue;
+                }
+                int[] nextSubset = new int[sizes[result]];
+                int index = 0;
+                for (int i = 0; i < subset.length; i++) {
+                    if (results[i] == result) {
+                        nextSubset[index++] = subset[i];
+                    }
+                }
+                next[result] = new State(nextSubset, hashes[result], revealed | bit);
+            }
+            return next;
+        }
+    }
+
+    /**
+     * The cells worth clicking in a state whose certain cells have been revealed, in the order they should be tried.
+     * If some cell is a hit in every layout it is the only move, otherwise the moves are ordered from most to least
+     * likely to hit.
+     */
+    private class MoveList {
+        private final int[] cells = new int[CELLS];
+        private final int[] hitCounts;
+        private final double size;
+        private int count;
+        private double expectedHits;
+        private boolean forced;
+
+        /**
+         * @param state The state to list the moves of, which must have more than one layout.
+         */
+        MoveList(State state) {
+            this.hitCounts = state.countHits();
+            this.size = state.subset.length;
+            for (int cell = 0; cell < CELLS; cell++) {
+                int hits = hitCounts[cell];
+                if (((state.revealed >>> cell) & 1) != 0 || hits == 0) {
+                    continue;
+                }
+                expectedHits += hits / size;
+                if (hits == size) {
+                    cells[0] = cell;
+                    count = 1;
+                    forced = true;
+                } else if (!forced) {
+                    cells[count++] = cell;
+                }
+            }
+            if (!forced) {
+                sortByCount(cells, count, hitCounts);
+            }
+        }
+
+        /**
+         * The certain cells are already revealed, so the first click on any remaining cell might miss.
+         *
+         * @return A lower bound on the value of the state.
+         */
+        double stateBound() {
+            return expectedHits + 1 - hitCounts[cells[0]] / size;
+        }
+
+        /**
+         * @param cell The index of the cell clicked.
+         * @return A lower bound on the value of clicking the cell: one for the click plus the expected number of
+         * animal cells left unrevealed afterwards.
+         */
+        double moveBound(int cell) {
+            return 1 + expectedHits - hitCounts[cell] / size;
+        }
+    }
+
+    /**
+     * A click on a cell along with the states which follow each of its results and a lower bound on its value.
+     */
+    private class Move {
+        private final int cell;
+        private final double size;
+        private final State[] next;
+        private final int[] forced;
+        private final Result[] known;
+        private final double[] lowerBounds;
+        private final int[] order;
+        private int resultCount;
+        private final double lowerBound;
+
+        /**
+         * Splits the state by the result of clicking the cell and bounds the value of each result. A result which has
+         * already been solved exactly is bounded by its value, otherwise by State.lowerBound.
+         *
+         * @param state The state in which the cell is clicked.
+         * @param cell  The index of the cell clicked.
+         */
+        Move(State state, int cell) {
+            this.cell = cell;
+            this.size = state.subset.length;
+            this.next = state.split(cell);
+            this.forced = new int[next.length];
+            this.known = new Result[next.length];
+            this.lowerBounds = new double[next.length];
+            this.order = new int[next.length];
+            double total = 1;
+            for (int i = 0; i < next.length; i++) {
+                State result = next[i];
+                if (result == null) {
+                    continue;
+                }
+                forced[i] = result.revealCertainCells();
+                double probability = result.subset.length / size;
+                known[i] = results.get(result.hash);
+                if (known[i] != null && known[i].exact) {
+                    lowerBounds[i] = probability * (forced[i] + known[i].value);
+                } else {
+                    lowerBounds[i] = probability * forced[i] + result.lowerBound() / size;
+                }
+                total += lowerBounds[i];
+                // Insert the result so that the most likely results are solved first.
+                int j = resultCount++ - 1;
+                while (j >= 0 && next[order[j]].subset.length < result.subset.length) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = i;
+            }
+            this.lowerBound = total;
+        }
+    }
+
+    /**
+     * The best move for a state and its expected number of clicks to finish, or a lower bound on it if the search
+     * was cut short.
+     */
+    private static class Result {
+        private final int move;
+        private final double value;
+        private final boolean exact;
+
+        /**
+         * @param move  The index of the best cell to click, or -1 if there is nothing to choose.
+         * @param value The expected number of clicks to finish.
+         * @param exact Whether the value is exact or only a lower bound.
+         */
+        Result(int move, double value, boolean exact) {
+            this.move = move;
+            this.value = value;
+            this.exact = exact;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package discozoosolver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the compiled game catalog, a compact binary form of data.xml which is generated at build time and
+ * loaded in a single read, with no XML parsing and no placement search.
+ * <p>
+ * The catalog is written with DataOutputStream and holds, in order:
+ * - The magic number and the format version.
+ * - A table of names, each written once, which locations and animals refer to by index.
+ * - A table of shapes, each holding its blocks as (x, y) byte pairs and the bitmask of each of its placements.
+ * Animals with the same shape, in any location, share an entry.
+ * - The locations, each holding its name index and, for each animal, its name index and shape index.
+ */
+public final class GameCatalog {
+    /** The name of the compiled catalog resource. */
+    public static final String RESOURCE = "data.bin";
+
+    private static final int MAGIC = 0x445a4354;
+    private static final int VERSION = 1;
+
+    private GameCatalog() {
+        throw new IllegalStateException("Class should not be instantiated");
+    }
+
+    /**
+     * Reads a compiled catalog.
+     *
+     * @param bytes The contents of the catalog.
+     * @return The game data map of locations, in the order they were written.
+     * @throws IOException If the catalog is truncated or is not a catalog.
+     */
+    public static Map<String, Location> read(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a game catalog");
+        }
+        int version = in.readUnsignedShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported game catalog version: " + version);
+        }
+
+        String[] names = new String[in.readUnsignedShort()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = in.readUTF();
+        }
+
+        Pattern[] patterns = new Pattern[in.readUnsignedShort()];
+        for (int i = 0; i < patterns.length; i++) {
+            List<Block> blocks = new ArrayList<>();
+            for (int blockCount = in.readUnsignedByte(); blocks.size() < blockCount; ) {
+                blocks.add(new Block(in.readUnsignedByte(), in.readUnsignedByte()));
+            }
+            int[] masks = new int[in.readUnsignedByte()];
+            for (int j = 0; j < masks.length; j++) {
+                masks[j] = in.readInt();
+            }
+            patterns[i] = new Pattern(blocks);
+            PlacementTable.register(patterns[i], masks);
+        }
+
+        int locationCount = in.readUnsignedShort();
+        Map<String, Location> locations = new LinkedHashMap<>();
+        for (int i = 0; i < locationCount; i++) {
+            String locationName = names[in.readUnsignedShort()];
+            List<Animal> animals = new ArrayList<>();
+            for (int animalCount = in.readUnsignedByte(); animals.size() < animalCount; ) {
+                animals.add(new Animal(names[in.readUnsignedShort()], patterns[in.readUnsignedShort()]));
+            }
+            locations.put(locationName, new Location(locationName, animals));
+        }
+        return locations;
+    }
+
+    /**
+     * Writes a compiled catalog.
+     *
+     * @param locations The game data map of locations.
+     * @return The contents of the catalog.
+     * @throws IOException If the catalog cannot be written.
+     */
+    public static byte[] write(Map<String, Location> locations) throws IOException {
+        List<String> names = new ArrayList<>();
+        Map<String, Integer> nameIds = new HashMap<>();
+        List<Pattern> shapes = new ArrayList<>();
+        Map<List<Block>, Integer> shapeIds = new HashMap<>();
+        for (Location location : locations.values()) {
+            nameIds.computeIfAbsent(location.getName(), name -> addName(names, name));
+            for (Animal animal : location.getAnimals()) {
+                nameIds.computeIfAbsent(animal.getName(), name -> addName(names, name));
+                shapeIds.computeIfAbsent(animal.getPattern().getBlocks(), blocks -> {
+                    shapes.add(animal.getPattern());
+                    return shapes.size() - 1;
+                });
+            }
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeShort(names.size());
+        for (String name : names) {
+            out.writeUTF(name);
+        }
+        out.writeShort(shapes.size());
+        for (Pattern shape : shapes) {
+            out.writeByte(shape.getSize());
+            for (Block block : shape.getBlocks()) {
+                out.writeByte(block.x());
+                out.writeByte(block.y());
+            }
+            PlacementTable table = PlacementTable.forPattern(shape);
+            out.writeByte(table.size());
+            for (int i = 0; i < table.size(); i++) {
+                out.writeInt(table.getMask(i));
+            }
+        }
+        out.writeShort(locations.size());
+        for (Location location : locations.values()) {
+            out.writeShort(nameIds.get(location.getName()));
+            out.writeByte(location.getAnimals().size());
+            for (Animal animal : location.getAnimals()) {
+                out.writeShort(nameIds.get(animal.getName()));
+                out.writeShort(shapeIds.get(animal.getPattern().getBlocks()));
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @param names The names added so far.
+     * @param name  The name to add.
+     * @return The index of the added name.
+     */
+    private static int addName(List<String> names, String name) {
+        names.add(name);
+        return names.size() - 1;
+    }
+
+    /**
+     * Compiles an XML catalog into a binary one. This is run by the build, which packages the result as the data.bin
+     * resource.
+     * <p>
+     * Usage: GameCatalog input.xml output.bin
+     *
+     * @param args The XML catalog to read and the binary catalog to write.
+     * @throws IOException If either file cannot be accessed.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: GameCatalog input.xml output.bin");
+            System.exit(1);
+        }
+        Map<String, Location> locations;
+        try (InputStream in = Files.newInputStream(Paths.get(args[0]))) {
+            locations = GameDataParser.parseXml(in);
+        }
+        if (locations.isEmpty()) {
+            throw new IOException("No locations found in " + args[0]);
+        }
+        Path output = Paths.get(args[1]);
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.write(output, write(locations));
+    }
+}
@@ -0,0 +1,72 @@
+package discozoosolver;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+public class GameDataParser {
+
+    private GameDataParser() {
+        throw new IllegalStateException("Class should not be instantiated");
+    }
+
+    /**
+     * Loads the game data. Outlined in the data is the list of locations, the animals which can be found in each
+     * location and the pattern for each animal.
+     * <p>
+     * The data is read from the compiled catalog resource, data.bin, which the build generates from resources/data.xml.
+     * When running from sources without it, resources/data.xml is parsed instead.
+     *
+     * @return The game data map of locations.
+     * @throws UncheckedIOException If neither catalog can be read.
+     */
+    public static Map<String, Location> parseData() {
+        ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+        try (InputStream catalog = classLoader.getResourceAsStream(GameCatalog.RESOURCE)) {
+            if (catalog != null) {
+                return GameCatalog.read(catalog.readAllBytes());
+            }
+        } catch (IOException e) {
+            // Logging is only set up on failure, as initialising it costs more than reading the catalog.
+            Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.WARNING,
+                    "Unable to read the compiled catalog, falling back to data.xml", e);
+        }
+        try (InputStream xml = classLoader.getResourceAsStream("data.xml")) {
+            if (xml == null) {
+                throw new IOException("Neither " + GameCatalog.RESOURCE + " nor data.xml could be found");
+            }
+            return parseXml(xml);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses game data in the format of resources/data.xml. Locations are built as they are first requested.
+     *
+     * @param input The XML document.
+     * @return The game data map of locations.
+     * @throws IOException If the document cannot be read or is not valid, in which case a CatalogException gives the
+     *                     line at fault.
+     */
+    static Map<String, Location> parseXml(InputStream input) throws IOException {
+        return LazyCatalog.read(input, "data.xml");
+    }
+
+    /**
+     * Opens a catalog file in the format of resources/data.xml, such as a catalog of event locations. Locations are
+     * built as they are first requested.
+     *
+     * @param path The catalog file.
+     * @return The game data map of locations.
+     * @throws IOException If the file cannot be read or is not valid, in which case a CatalogException gives the line
+     *                     at fault.
+     */
+    public static Map<String, Location> parseCatalog(Path path) throws IOException {
+        return LazyCatalog.open(path);
+    }
+}
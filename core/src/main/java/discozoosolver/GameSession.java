@@ -0,0 +1,296 @@
+package discozoosolver;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A single game played against the solver without a user interface. The session validates each result before applying
+ * it to its board, so that a malformed request is rejected without disturbing the game. If a result contradicts the
+ * earlier ones no layout of the animals remains and the session refuses any further results.
+ * <p>
+ * Each session records the result of every cell, which is enough to rebuild it: a snapshot holds only the location,
+ * the animals and those results, and a session is restored from one by replaying the results on a new board.
+ * <p>
+ * Sessions are not thread safe. Callers which share a session between threads must synchronise on it.
+ */
+public class GameSession {
+    private static final int CELLS = Constants.BOARD_SIZE * Constants.BOARD_SIZE;
+    private static final byte UNREVEALED = 0;
+    private static final byte MISS = 1;
+    /* A hit on the animal added at index i is recorded as FIRST_HIT + i. */
+    private static final byte FIRST_HIT = 2;
+    /* Rough sizes of a board's fixed structures and of each candidate, used to budget memory for sessions. */
+    private static final int BOARD_BYTES = 6 * 1024;
+    private static final int CANDIDATE_BYTES = 40;
+
+    private final Location location;
+    private final Board board;
+    private final byte[] results;
+    private boolean consistent;
+
+    /**
+     * Sole constructor for GameSession which starts a game with the given animals.
+     *
+     * @param location The location the game is played in.
+     * @param animals  The names of the animals to find, each of which must live in the location.
+     */
+    public GameSession(Location location, List<String> animals) {
+        if (animals.isEmpty()) {
+            throw new IllegalArgumentException("A game needs at least one animal");
+        }
+        this.location = location;
+        this.board = new Board();
+        this.results = new byte[CELLS];
+        board.setLocation(location.getName());
+        Set<String> added = new HashSet<>();
+        for (String name : animals) {
+            if (!added.add(name)) {
+                throw new IllegalArgumentException(name + " can only be added once");
+            }
+            board.addAnimal(location.getAnimal(name));
+        }
+        board.generateCandidates();
+        consistent = true;
+    }
+
+    /**
+     * Confirms that the given animal was found at (x, y).
+     *
+     * @param x      The x coordinate of the cell.
+     * @param y      The y coordinate of the cell.
+     * @param animal The name of the animal found.
+     */
+    public void hit(int x, int y, String animal) {
+        Block block = toUnrevealedBlock(x, y);
+        int index = indexOfAnimal(animal);
+        results[block.index()] = (byte) (FIRST_HIT + index);
+        apply(() -> board.confirmHit(block, animal));
+    }
+
+    /**
+     * Confirms that (x, y) was empty.
+     *
+     * @param x The x coordinate of the cell.
+     * @param y The y coordinate of the cell.
+     */
+    public void miss(int x, int y) {
+        Block block = toUnrevealedBlock(x, y);
+        results[block.index()] = MISS;
+        apply(() -> board.confirmMiss(block));
+    }
+
+    /**
+     * @return The probability of each animal occupying each cell given the results so far.
+     */
+    public Probabilities getProbabilities() {
+        requireConsistent();
+        Probabilities probabilities = board.getProbabilities();
+        // Animals may each have candidates left which can no longer be placed without overlapping.
+        consistent = probabilities.getLayoutCount() > 0;
+        requireConsistent();
+        return probabilities;
+    }
+
+    /**
+     * @return The click which minimises the expected number of clicks needed to find every animal.
+     */
+    public Recommendation getRecommendation() {
+        requireConsistent();
+        return board.getRecommendation();
+    }
+
+    /**
+     * Chooses the unrevealed, unknown cell most likely to hit, taking the first in reading order on ties. If every
+     * remaining animal cell is already known, the first of those is chosen instead.
+     *
+     * @param probabilities The probabilities for the current results, as returned by getProbabilities.
+     * @return The block to click next, or null if every animal has been found.
+     */
+    public Block getMostLikelyBlock(Probabilities probabilities) {
+        int best = -1;
+        int firstKnown = -1;
+        for (int i = 0; i < CELLS; i++) {
+            Cell cell = board.getCells().get(i);
+            if (cell.getFinalised() || probabilities.getHitCount(i) == 0) {
+                continue;
+            }
+            if (cell.getKnown()) {
+                firstKnown = firstKnown < 0 ? i : firstKnown;
+            } else if (best < 0 || probabilities.getHitCount(i) > probabilities.getHitCount(best)) {
+                best = i;
+            }
+        }
+        int chosen = best >= 0 ? best : firstKnown;
+        return chosen < 0 ? null : board.getCells().get(chosen).getBlock();
+    }
+
+    /**
+     * @return Whether every cell which could still hold an animal has been revealed.
+     */
+    public boolean isFinished() {
+        for (Cell cell : board.getCells()) {
+            if (cell.getCount() > 0 && !cell.getFinalised()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return An estimate of the memory held by the session in bytes, which shrinks as candidates are eliminated.
+     */
+    public long estimateSize() {
+        return BOARD_BYTES + (long) CANDIDATE_BYTES * board.getCandidates().size();
+    }
+
+    /**
+     * Encodes the session as the location id, the number of animals, the id of each animal within the location and
+     * the result of each cell in reading order, one byte each. A cell is 0 if unrevealed, 1 if a miss and 2 + i if a
+     * hit on the i-th animal of the game.
+     *
+     * @param locationId The id of the session's location, which must fit in a byte.
+     * @return The snapshot.
+     */
+    public byte[] toSnapshot(int locationId) {
+        List<Animal> animals = board.getAnimals();
+        byte[] snapshot = new byte[2 + animals.size() + CELLS];
+        snapshot[0] = (byte) locationId;
+        snapshot[1] = (byte) animals.size();
+        for (int i = 0; i < animals.size(); i++) {
+            snapshot[2 + i] = (byte) location.getAnimals().indexOf(animals.get(i));
+        }
+        System.arraycopy(results, 0, snapshot, 2 + animals.size(), CELLS);
+        return snapshot;
+    }
+
+    /**
+     * Restores a session from a snapshot by replaying its results. A session whose results contradicted each other is
+     * restored in the same inconsistent state.
+     *
+     * @param snapshot  A snapshot created by toSnapshot.
+     * @param locations The locations indexed by the ids used when the snapshot was created.
+     * @return The restored session.
+     */
+    public static GameSession fromSnapshot(byte[] snapshot, List<Location> locations) {
+        Location location = locations.get(snapshot[0] & 0xFF);
+        int animalCount = snapshot[1] & 0xFF;
+        if (snapshot.length != 2 + animalCount + CELLS) {
+            throw new IllegalArgumentException("Snapshot has " + snapshot.length + " bytes but should have "
+                    + (2 + animalCount + CELLS));
+        }
+        List<String> names = new ArrayList<>(animalCount);
+        for (int i = 0; i < animalCount; i++) {
+            names.add(location.getAnimals().get(snapshot[2 + i] & 0xFF).getName());
+        }
+
+        GameSession session = new GameSession(location, names);
+        for (int cell = 0; cell < CELLS; cell++) {
+            byte result = snapshot[2 + animalCount + cell];
+            if (result == UNREVEALED) {
+                continue;
+            }
+            Block block = new Block(cell % Constants.BOARD_SIZE, cell / Constants.BOARD_SIZE);
+            session.results[cell] = result;
+            // Results after a contradiction are kept so that the session snapshots the same way again.
+            if (session.consistent) {
+                try {
+                    if (result == MISS) {
+                        session.apply(() -> session.board.confirmMiss(block));
+                    } else {
+                        String animal = names.get(result - FIRST_HIT);
+                        session.apply(() -> session.board.confirmHit(block, animal));
+                    }
+                } catch (IllegalStateException e) {
+                    // The session is now inconsistent, as it was when the snapshot was taken.
+                }
+            }
+        }
+        return session;
+    }
+
+    /**
+     * @return The location the game is played in.
+     */
+    public Location getLocation() {
+        return location;
+    }
+
+    /**
+     * @return The board holding the results so far.
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * @param x The x coordinate.
+     * @param y The y coordinate.
+     * @return The block at the given coordinates, if it is on the board and has not been clicked. Cells which have
+     * only been deduced can still be clicked.
+     */
+    private Block toUnrevealedBlock(int x, int y) {
+        requireConsistent();
+        if (x < 0 || x >= Constants.BOARD_SIZE || y < 0 || y >= Constants.BOARD_SIZE) {
+            throw new IllegalArgumentException("Cell is off the board: " + x + "," + y);
+        }
+        Block block = new Block(x, y);
+        if (board.snapshot().isRevealed(block.index())) {
+            throw new IllegalArgumentException("Cell has already been revealed: " + x + "," + y);
+        }
+        return block;
+    }
+
+    /**
+     * @param name The name of an animal, which must be part of this game.
+     * @return The index at which the animal was added to the game.
+     */
+    private int indexOfAnimal(String name) {
+        List<Animal> animals = board.getAnimals();
+        for (int i = 0; i < animals.size(); i++) {
+            if (animals.get(i).getName().equals(name)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(name + " is not part of this game");
+    }
+
+    /**
+     * Applies a result to the board. The board fails part way through processing a result which leaves an animal
+     * without candidates, so any failure marks the session as inconsistent.
+     *
+     * @param result The update to apply.
+     */
+    private void apply(Runnable result) {
+        try {
+            result.run();
+        } catch (RuntimeException e) {
+            consistent = false;
+            throw new IllegalStateException("No layout of the animals agrees with the results", e);
+        }
+        checkConsistent();
+    }
+
+    /**
+     * Marks the session as inconsistent if any animal has no candidates left after the latest result.
+     */
+    private void checkConsistent() {
+        consistent = true;
+        for (int a = 0; a < board.getAnimals().size(); a++) {
+            if (board.getCandidateCount(a) == 0) {
+                consistent = false;
+            }
+        }
+        requireConsistent();
+    }
+
+    /**
+     * Rejects any use of the session once the results have contradicted each other.
+     */
+    private void requireConsistent() {
+        if (!consistent) {
+            throw new IllegalStateException("No layout of the animals agrees with the results");
+        }
+    }
+}
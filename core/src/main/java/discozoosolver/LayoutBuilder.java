@@ -0,0 +1,67 @@
+package discozoosolver;
+
+import java.util.Arrays;
+
+/**
+ * Enumerates every layout of a set of candidates, storing the bitmask of each animal and of the whole layout.
+ * <p>
+ * Layouts are stored flattened, so the bitmask of animal a in layout l is at index l * animalCount + a.
+ */
+class LayoutBuilder {
+    private final int[][] placements;
+    private final int[] chosen;
+    private int[] layouts;
+    private int[] unions;
+    private int count;
+
+    /**
+     * @param placements The candidate bitmasks for each animal.
+     */
+    LayoutBuilder(int[][] placements) {
+        this.placements = placements;
+        this.chosen = new int[placements.length];
+        this.layouts = new int[placements.length * 64];
+        this.unions = new int[64];
+        if (placements.length > 0) {
+            enumerate(0, 0);
+        }
+    }
+
+    /**
+     * Recursively chooses a non-overlapping candidate for each animal from the given animal onwards.
+     *
+     * @param animal   The index of the animal to place next.
+     * @param occupied The bitmask of cells occupied by the animals already placed.
+     */
+    private void enumerate(int animal, int occupied) {
+        if (animal == placements.length) {
+            if (count == unions.length) {
+                unions = Arrays.copyOf(unions, count * 2);
+                layouts = Arrays.copyOf(layouts, count * 2 * placements.length);
+            }
+            System.arraycopy(chosen, 0, layouts, count * placements.length, placements.length);
+            unions[count++] = occupied;
+            return;
+        }
+        for (int mask : placements[animal]) {
+            if ((mask & occupied) == 0) {
+                chosen[animal] = mask;
+                enumerate(animal + 1, occupied | mask);
+            }
+        }
+    }
+
+    /**
+     * @return The bitmask of each animal in each layout, flattened by layout.
+     */
+    int[] getLayouts() {
+        return Arrays.copyOf(layouts, count * placements.length);
+    }
+
+    /**
+     * @return The bitmask of every cell occupied by an animal in each layout.
+     */
+    int[] getUnions() {
+        return Arrays.copyOf(unions, count);
+    }
+}
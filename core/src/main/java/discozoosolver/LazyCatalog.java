@@ -0,0 +1,579 @@
+package discozoosolver;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A catalog of game data in the format of resources/data.xml, whose locations are only built when first requested.
+ * <p>
+ * Opening a catalog streams through it once with StAX, checking every location, animal and pattern and recording
+ * where each location starts, but creates no Location, Animal or Pattern objects. Looking up a location then reads
+ * just that location, seeking straight to the byte at which it starts rather than decoding the catalog up to it. The
+ * cost of opening a catalog is therefore a single pass over the text, however many locations it holds, and problems
+ * are reported up front with the line on which they were found.
+ * <p>
+ * The catalog is an unmodifiable map from location name to location, in the order the locations appear. It is safe
+ * to use from several threads.
+ */
+public final class LazyCatalog extends AbstractMap<String, Location> {
+    private static final String LOCATION = "LOCATION";
+    private static final String ANIMALS = "ANIMALS";
+    private static final String ANIMAL = "ANIMAL";
+    private static final String NAME = "NAME";
+    private static final String PATTERN = "PATTERN";
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private final String source;
+    private final Opener opener;
+    private final Map<String, Entry> entries;
+    private final Set<Map.Entry<String, Location>> entrySet;
+
+    /**
+     * @param source  The name of the catalog, used in error messages.
+     * @param opener  Opens the catalog for reading from its start.
+     * @param entries The position of each location, by name.
+     */
+    private LazyCatalog(String source, Opener opener, Map<String, Entry> entries) {
+        this.source = source;
+        this.opener = opener;
+        this.entries = Collections.unmodifiableMap(entries);
+        this.entrySet = new EntrySet();
+    }
+
+    /**
+     * @return A factory for readers which do not process DTDs, so catalogs cannot refer to external entities.
+     */
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        return factory;
+    }
+
+    /**
+     * Opens a catalog file. The file is read again whenever a location is first requested, so it must not change
+     * while the catalog is in use.
+     *
+     * @param path The catalog file.
+     * @return The catalog.
+     * @throws IOException If the file cannot be read or is not a valid catalog, in which case a CatalogException
+     *                     gives the line at fault.
+     */
+    public static LazyCatalog open(Path path) throws IOException {
+        return index(path.toString(), (byteOffset, charOffset) -> {
+            FileChannel channel = FileChannel.open(path);
+            try {
+                channel.position(byteOffset);
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+            return new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1));
+        });
+    }
+
+    /**
+     * Reads a catalog from a stream, which is held in memory so that locations can be read from it later.
+     *
+     * @param input  The catalog, encoded as UTF-8.
+     * @param source The name of the catalog, used in error messages.
+     * @return The catalog.
+     * @throws IOException If the stream cannot be read or is not a valid catalog, in which case a CatalogException
+     *                     gives the line at fault.
+     */
+    public static LazyCatalog read(InputStream input, String source) throws IOException {
+        String text = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        return index(source, (byteOffset, charOffset) -> {
+            StringReader reader = new StringReader(text);
+            reader.skip(charOffset);
+            return reader;
+        });
+    }
+
+    /**
+     * Streams through a catalog, checking it and recording the position of each location.
+     *
+     * @param source The name of the catalog.
+     * @param opener Opens the catalog for reading from its start.
+     * @return The catalog.
+     * @throws IOException If the catalog cannot be read or is not valid.
+     */
+    private static LazyCatalog index(String source, Opener opener) throws IOException {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        XMLStreamReader xml = null;
+        try (ByteCountingReader reader = new ByteCountingReader(opener.open(0, 0))) {
+            xml = FACTORY.createXMLStreamReader(reader);
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && xml.getLocalName().equals(LOCATION)) {
+                    // The reader's position at a start element is just past the tag, which is where reading resumes.
+                    int offset = xml.getLocation().getCharacterOffset();
+                    int line = xml.getLocation().getLineNumber();
+                    long byteOffset = reader.byteOffsetOf(offset);
+                    String name = readLocation(xml, source, 0, null);
+                    if (entries.put(name, new Entry(byteOffset, offset, line)) != null) {
+                        throw new CatalogException(source, line, "Duplicate location " + name, null);
+                    }
+                }
+            }
+        } catch (XMLStreamException e) {
+            int line = e.getLocation() == null ? -1 : e.getLocation().getLineNumber();
+            throw new CatalogException(source, line, e.getMessage(), e);
+        } finally {
+            close(xml);
+        }
+        return new LazyCatalog(source, opener, entries);
+    }
+
+    /**
+     * Reads a location, starting just after its start tag and finishing on its end tag.
+     *
+     * @param xml      The reader, positioned on the location's start tag.
+     * @param source   The name of the catalog.
+     * @param lineBase The number of lines in the catalog before the first line seen by the reader.
+     * @param animals  The list to add the location's animals to, or null to only check them.
+     * @return The location's name.
+     * @throws XMLStreamException If the XML is not well formed.
+     * @throws CatalogException   If the location is not valid.
+     */
+    private static String readLocation(XMLStreamReader xml, String source, int lineBase, List<Animal> animals)
+            throws XMLStreamException, CatalogException {
+        int line = lineBase + xml.getLocation().getLineNumber();
+        String name = null;
+        Set<String> animalNames = new HashSet<>();
+        while (xml.nextTag() == XMLStreamConstants.START_ELEMENT || !xml.getLocalName().equals(LOCATION)) {
+            if (xml.isEndElement()) {
+                continue;
+            }
+            switch (xml.getLocalName()) {
+                case NAME:
+                    name = readText(xml, source, lineBase);
+                    break;
+                case ANIMALS:
+                    break;
+                case ANIMAL:
+                    int animalLine = lineBase + xml.getLocation().getLineNumber();
+                    String animal = readAnimal(xml, source, lineBase, animals);
+                    if (!animalNames.add(animal)) {
+                        throw new CatalogException(source, animalLine, "Duplicate animal " + animal, null);
+                    }
+                    break;
+                default:
+                    throw unexpected(xml, source, lineBase);
+            }
+        }
+        if (name == null) {
+            throw new CatalogException(source, line, "Location has no NAME", null);
+        }
+        if (animalNames.isEmpty()) {
+            throw new CatalogException(source, line, "Location " + name + " has no animals", null);
+        }
+        return name;
+    }
+
+    /**
+     * Reads an animal, starting just after its start tag and finishing on its end tag.
+     *
+     * @param xml      The reader, positioned on the animal's start tag.
+     * @param source   The name of the catalog.
+     * @param lineBase The number of lines in the catalog before the first line seen by the reader.
+     * @param animals  The list to add the animal to, or null to only check it.
+     * @return The animal's name.
+     * @throws XMLStreamException If the XML is not well formed.
+     * @throws CatalogException   If the animal is not valid.
+     */
+    private static String readAnimal(XMLStreamReader xml, String source, int lineBase, List<Animal> animals)
+            throws XMLStreamException, CatalogException {
+        int line = lineBase + xml.getLocation().getLineNumber();
+        String name = null;
+        List<Block> blocks = null;
+        while (xml.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (xml.getLocalName()) {
+                case NAME:
+                    name = readText(xml, source, lineBase);
+                    break;
+                case PATTERN:
+                    int patternLine = lineBase + xml.getLocation().getLineNumber();
+                    String text = readText(xml, source, lineBase);
+                    try {
+                        blocks = parsePattern(text);
+                    } catch (IllegalArgumentException e) {
+                        throw new CatalogException(source, patternLine, "Malformed pattern \"" + text + "\": "
+                                + e.getMessage(), e);
+                    }
+                    break;
+                default:
+                    throw unexpected(xml, source, lineBase);
+            }
+        }
+        if (name == null || blocks == null) {
+            throw new CatalogException(source, line, "Animal " + (name == null ? "" : name + " ") + "needs a "
+                    + (name == null ? NAME : PATTERN), null);
+        }
+        if (animals != null) {
+            animals.add(new Animal(name, new Pattern(blocks)));
+        }
+        return name;
+    }
+
+    /**
+     * Parses a pattern of space separated coordinates in the format (x1 y1) (x2 y2) ... (xn yn). The coordinates must
+     * be distinct, lie on the board and be offsets from the top left of the pattern's bounding box.
+     *
+     * @param text The pattern.
+     * @return The blocks of the pattern in the order given.
+     * @throws IllegalArgumentException If the pattern is malformed.
+     */
+    static List<Block> parsePattern(String text) {
+        List<Block> blocks = new ArrayList<>();
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int i = skipSpaces(text, 0);
+        while (i < text.length()) {
+            if (text.charAt(i) != '(') {
+                throw new IllegalArgumentException("expected ( at column " + (i + 1));
+            }
+            int[] value = new int[2];
+            i = parseCoordinate(text, skipSpaces(text, i + 1), value, 0);
+            i = parseCoordinate(text, skipSpaces(text, i), value, 1);
+            i = skipSpaces(text, i);
+            if (i >= text.length() || text.charAt(i) != ')') {
+                throw new IllegalArgumentException("expected ) at column " + (i + 1));
+            }
+            Block block = new Block(value[0], value[1]);
+            if (blocks.contains(block)) {
+                throw new IllegalArgumentException("repeats " + block);
+            }
+            blocks.add(block);
+            minX = Math.min(minX, block.x());
+            minY = Math.min(minY, block.y());
+            i = skipSpaces(text, i + 1);
+        }
+        if (blocks.isEmpty()) {
+            throw new IllegalArgumentException("no coordinates");
+        }
+        if (minX != 0 || minY != 0) {
+            throw new IllegalArgumentException("coordinates must start from (0 0) at the top left");
+        }
+        return blocks;
+    }
+
+    /**
+     * @param text  The pattern.
+     * @param start The index at which the coordinate starts.
+     * @param value The array to store the coordinate in.
+     * @param index The index in the array at which to store it.
+     * @return The index after the coordinate.
+     */
+    private static int parseCoordinate(String text, int start, int[] value, int index) {
+        int end = start;
+        while (end < text.length() && Character.isDigit(text.charAt(end))) {
+            end++;
+        }
+        if (end == start) {
+            throw new IllegalArgumentException("expected a number at column " + (start + 1));
+        }
+        // Board coordinates are single digits, so a longer number is off the board whatever its value.
+        int coordinate = end - start > 2 ? Constants.BOARD_SIZE : Integer.parseInt(text.substring(start, end));
+        if (coordinate >= Constants.BOARD_SIZE) {
+            throw new IllegalArgumentException("coordinate at column " + (start + 1) + " is off the board");
+        }
+        value[index] = coordinate;
+        return end;
+    }
+
+    /**
+     * @param text  The text to scan.
+     * @param start The index to start at.
+     * @return The index of the first character at or after start which is not whitespace.
+     */
+    private static int skipSpaces(String text, int start) {
+        int i = start;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * @param xml      The reader, positioned on a start tag with only text content.
+     * @param source   The name of the catalog.
+     * @param lineBase The number of lines in the catalog before the first line seen by the reader.
+     * @return The trimmed text of the element, which must not be empty.
+     * @throws XMLStreamException If the XML is not well formed.
+     * @throws CatalogException   If the element is empty.
+     */
+    private static String readText(XMLStreamReader xml, String source, int lineBase)
+            throws XMLStreamException, CatalogException {
+        String element = xml.getLocalName();
+        int line = lineBase + xml.getLocation().getLineNumber();
+        String text = xml.getElementText().trim();
+        if (text.isEmpty()) {
+            throw new CatalogException(source, line, element + " is empty", null);
+        }
+        return text;
+    }
+
+    /**
+     * @param xml      The reader, positioned on an element which should not be there.
+     * @param source   The name of the catalog.
+     * @param lineBase The number of lines in the catalog before the first line seen by the reader.
+     * @return An exception describing the element.
+     */
+    private static CatalogException unexpected(XMLStreamReader xml, String source, int lineBase) {
+        return new CatalogException(source, lineBase + xml.getLocation().getLineNumber(),
+                "Unexpected element " + xml.getLocalName(), null);
+    }
+
+    /**
+     * @param xml The reader to close, which may be null.
+     */
+    private static void close(XMLStreamReader xml) {
+        if (xml != null) {
+            try {
+                xml.close();
+            } catch (XMLStreamException e) {
+                // Closing only releases the reader's own state; the underlying reader is closed separately.
+            }
+        }
+    }
+
+    /**
+     * Builds a location from the catalog the first time it is requested.
+     *
+     * @param entry The position of the location.
+     * @return The location.
+     */
+    private Location materialise(Entry entry) {
+        Location location = entry.location;
+        if (location != null) {
+            return location;
+        }
+        synchronized (entry) {
+            if (entry.location == null) {
+                entry.location = readAt(entry);
+            }
+            return entry.location;
+        }
+    }
+
+    /**
+     * @param entry The position of a location.
+     * @return The location read from that position.
+     */
+    private Location readAt(Entry entry) {
+        XMLStreamReader xml = null;
+        try (Reader reader = opener.open(entry.byteOffset, entry.charOffset)) {
+            // The start tag itself has been skipped, so it is replaced ahead of the location's contents.
+            xml = FACTORY.createXMLStreamReader(new PrefixedReader("<" + LOCATION + ">", reader));
+            xml.nextTag();
+            List<Animal> animals = new ArrayList<>();
+            String name = readLocation(xml, source, entry.line - 1, animals);
+            return new Location(name, animals);
+        } catch (XMLStreamException e) {
+            throw new UncheckedIOException(new CatalogException(source, entry.line, e.getMessage(), e));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            close(xml);
+        }
+    }
+
+    /**
+     * @return The number of locations which have been built so far.
+     */
+    public int getMaterialisedCount() {
+        int count = 0;
+        for (Entry entry : entries.values()) {
+            count += entry.location == null ? 0 : 1;
+        }
+        return count;
+    }
+
+    /**
+     * @return The name of the catalog.
+     */
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public Location get(Object key) {
+        Entry entry = entries.get(key);
+        return entry == null ? null : materialise(entry);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return entries.containsKey(key);
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return entries.keySet();
+    }
+
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public Set<Map.Entry<String, Location>> entrySet() {
+        return entrySet;
+    }
+
+    /**
+     * Opens a catalog for reading from a position within it.
+     */
+    @FunctionalInterface
+    private interface Opener {
+        /**
+         * @param byteOffset The number of bytes of UTF-8 before the position, for catalogs read from bytes.
+         * @param charOffset The number of characters before the position, for catalogs held as text.
+         * @return A reader starting at the position.
+         * @throws IOException If the catalog cannot be opened.
+         */
+        Reader open(long byteOffset, int charOffset) throws IOException;
+    }
+
+    /**
+     * The position of a location in the catalog: the byte and character offsets just after its start tag and the
+     * line on which that falls. The location itself is filled in when it is first requested.
+     */
+    private static final class Entry {
+        private final long byteOffset;
+        private final int charOffset;
+        private final int line;
+        private volatile Location location;
+
+        private Entry(long byteOffset, int charOffset, int line) {
+            this.byteOffset = byteOffset;
+            this.charOffset = charOffset;
+            this.line = line;
+        }
+    }
+
+    /**
+     * The entries of the catalog, each of which builds its location when its value is requested.
+     */
+    private final class EntrySet extends AbstractSet<Map.Entry<String, Location>> {
+        @Override
+        public Iterator<Map.Entry<String, Location>> iterator() {
+            Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+            return new Iterator<Map.Entry<String, Location>>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Map.Entry<String, Location> next() {
+                    Map.Entry<String, Entry> next = iterator.next();
+                    return new SimpleImmutableEntry<>(next.getKey(), materialise(next.getValue()));
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return entries.size();
+        }
+    }
+
+    /**
+     * A reader which works out the UTF-8 byte offset of character offsets in what it has read. The parser reads ahead
+     * of the positions it reports, so the characters since the last offset asked for are kept until the next one is.
+     * Offsets must be asked for in increasing order, and only a location's worth of text is ever kept.
+     */
+    private static final class ByteCountingReader extends Reader {
+        private final Reader in;
+        private final StringBuilder pending = new StringBuilder();
+        private int charOffset;
+        private long byteOffset;
+
+        private ByteCountingReader(Reader in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int count = in.read(buffer, offset, length);
+            if (count > 0) {
+                pending.append(buffer, offset, count);
+            }
+            return count;
+        }
+
+        /**
+         * @param offset A character offset no earlier than the last one asked for and no later than what has been read.
+         * @return The number of bytes the characters before the offset take in UTF-8.
+         */
+        long byteOffsetOf(int offset) {
+            int count = offset - charOffset;
+            for (int i = 0; i < count; i++) {
+                char c = pending.charAt(i);
+                // Each half of a surrogate pair counts for half of the pair's four bytes.
+                byteOffset += c < 0x80 ? 1 : c < 0x800 ? 2 : Character.isSurrogate(c) ? 2 : 3;
+            }
+            pending.delete(0, count);
+            charOffset = offset;
+            return byteOffset;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * A reader which returns a fixed prefix before the contents of another reader.
+     */
+    private static final class PrefixedReader extends Reader {
+        private final String prefix;
+        private final Reader rest;
+        private int position;
+
+        private PrefixedReader(String prefix, Reader rest) {
+            this.prefix = prefix;
+            this.rest = rest;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            if (position < prefix.length()) {
+                int count = Math.min(length, prefix.length() - position);
+                prefix.getChars(position, position + count, buffer, offset);
+                position += count;
+                return count;
+            }
+            return rest.read(buffer, offset, length);
+        }
+
+        @Override
+        public void close() throws IOException {
+            rest.close();
+        }
+    }
+}
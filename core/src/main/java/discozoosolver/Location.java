@@ -1,6 +1,8 @@
 package discozoosolver;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 /**
@@ -10,6 +12,7 @@ import java.util.NoSuchElementException;
 public class Location {
     private final String name;
     private final List<Animal> animals;
+    private final Map<String, Animal> animalsByName;
 
     /**
      * Sole constructor for Location which sets the name and animals as provided.
@@ -20,6 +23,10 @@ public class Location {
     public Location(String name, List<Animal> animals) {
         this.name = name;
         this.animals = animals;
+        this.animalsByName = new HashMap<>();
+        for (Animal animal : animals) {
+            animalsByName.putIfAbsent(animal.getName(), animal);
+        }
     }
 
     /**
@@ -43,12 +50,24 @@ public class Location {
      * @return The Animal object with the given name if it can be found in this location.
      */
     public Animal getAnimal(String name) {
-        for (Animal animal : animals) {
-            if (animal.getName().equals(name)) {
-                return animal;
-            }
+        Animal animal = animalsByName.get(name);
+        if (animal == null) {
+            throw new NoSuchElementException(name + " does not exist in " + this.name);
+        }
+        return animal;
+    }
+
+    /**
+     * Returns the Animal object at the given index of this location's animals.
+     *
+     * @param index The index of the animal to return, in the order the location lists its animals.
+     * @return The Animal object at the given index if there is one.
+     */
+    public Animal getAnimal(int index) {
+        if (index < 0 || index >= animals.size()) {
+            throw new NoSuchElementException("Animal " + index + " does not exist in " + this.name);
         }
-        throw new NoSuchElementException(name + " does not exist in " + this.name);
+        return animals.get(index);
     }
 
     @Override
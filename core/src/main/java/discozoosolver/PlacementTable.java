@@ -0,0 +1,170 @@
+package discozoosolver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable table of every legal placement of a pattern shape on the board.
+ * <p>
+ * Each placement is stored both as an unmodifiable list of blocks and as a board bitmask. Tables are shared process
+ * wide and are de-duplicated by shape, so every animal with the same pattern, in any location, uses the same table.
+ * Boards create their candidates directly from these placements rather than building new blocks for every game.
+ * <p>
+ * A table also records which of another table's placements each of its placements can sit alongside without
+ * overlapping. A board has at most 25 placements per shape, so these are bitsets over placement indices held in a
+ * single int, and are worked out once per pair of shapes.
+ */
+public final class PlacementTable {
+    private static final Map<List<Block>, PlacementTable> TABLES = new ConcurrentHashMap<>();
+
+    private final List<List<Block>> positions;
+    private final int[] masks;
+    private final Map<PlacementTable, int[]> compatible = new ConcurrentHashMap<>();
+
+    /**
+     * Private constructor for PlacementTable which calculates every placement of the given shape. Tables are
+     * retrieved through forPattern.
+     *
+     * @param shape The blocks of the shape as offsets from its origin.
+     */
+    private PlacementTable(List<Block> shape) {
+        Pattern pattern = new Pattern(shape);
+        List<List<Block>> newPositions = new ArrayList<>();
+        // Each pattern is offset from the top left block in its bounding box. Thus for each cell, if the pattern's
+        // bounds fit on the board, the placement is possible.
+        for (int y = 0; y <= Constants.BOARD_SIZE - pattern.getHeight(); y++) {
+            for (int x = 0; x <= Constants.BOARD_SIZE - pattern.getWidth(); x++) {
+                List<Block> blocks = new ArrayList<>();
+                for (Block block : shape) {
+                    blocks.add(new Block(x + block.x(), y + block.y()));
+                }
+                newPositions.add(Collections.unmodifiableList(blocks));
+            }
+        }
+        this.positions = Collections.unmodifiableList(newPositions);
+        this.masks = new int[positions.size()];
+        for (int i = 0; i < masks.length; i++) {
+            for (Block block : positions.get(i)) {
+                masks[i] |= block.toMask();
+            }
+        }
+    }
+
+    /**
+     * Private constructor for PlacementTable which restores a table from the bitmasks of its placements, as written to
+     * the compiled game catalog. Each placement is the shape moved so that its first block in reading order lands on
+     * the mask's lowest cell, so the blocks of each placement are recovered without searching the board again.
+     *
+     * @param shape The blocks of the shape as offsets from its origin.
+     * @param masks The bitmask of each placement, in the order they were calculated.
+     */
+    private PlacementTable(List<Block> shape, int[] masks) {
+        int first = Integer.MAX_VALUE;
+        for (Block block : shape) {
+            first = Math.min(first, block.index());
+        }
+        List<List<Block>> newPositions = new ArrayList<>(masks.length);
+        for (int mask : masks) {
+            int offset = Integer.numberOfTrailingZeros(mask) - first;
+            List<Block> blocks = new ArrayList<>(shape.size());
+            for (Block block : shape) {
+                int index = block.index() + offset;
+                blocks.add(new Block(index % Constants.BOARD_SIZE, index / Constants.BOARD_SIZE));
+            }
+            newPositions.add(Collections.unmodifiableList(blocks));
+        }
+        this.positions = Collections.unmodifiableList(newPositions);
+        this.masks = masks.clone();
+    }
+
+    /**
+     * Returns the shared table for the shape of the given pattern, calculating it if this is the first time the shape
+     * has been seen.
+     *
+     * @param pattern The pattern for which to retrieve placements.
+     * @return The placement table for the pattern's shape.
+     */
+    public static PlacementTable forPattern(Pattern pattern) {
+        List<Block> shape = pattern.getBlocks();
+        PlacementTable table = TABLES.get(shape);
+        if (table == null) {
+            table = TABLES.computeIfAbsent(List.copyOf(shape), PlacementTable::new);
+        }
+        return table;
+    }
+
+    /**
+     * Shares a table restored from the compiled game catalog for the shape of the given pattern, unless the shape
+     * already has one.
+     *
+     * @param pattern The pattern whose placements are given.
+     * @param masks   The bitmask of each placement, as returned by getMask.
+     */
+    static void register(Pattern pattern, int[] masks) {
+        List<Block> shape = List.copyOf(pattern.getBlocks());
+        // This runs at startup, where bootstrapping a lambda would cost more than the rest of loading the catalog.
+        if (!TABLES.containsKey(shape)) {
+            TABLES.putIfAbsent(shape, new PlacementTable(shape, masks));
+        }
+    }
+
+    /**
+     * @return The number of distinct shapes for which tables have been calculated.
+     */
+    public static int getShapeCount() {
+        return TABLES.size();
+    }
+
+    /**
+     * @return The number of placements in this table.
+     */
+    public int size() {
+        return masks.length;
+    }
+
+    /**
+     * @param index The index of the placement.
+     * @return The unmodifiable list of blocks occupied by the placement.
+     */
+    public List<Block> getPosition(int index) {
+        return positions.get(index);
+    }
+
+    /**
+     * @param index The index of the placement.
+     * @return The bitmask of cells occupied by the placement.
+     */
+    public int getMask(int index) {
+        return masks[index];
+    }
+
+    /**
+     * Returns the placements of another table which do not overlap each placement of this one, calculating them if
+     * this is the first time the pair has been seen.
+     *
+     * @param other The table of the other shape, which may be this table.
+     * @return For each placement of this table, the bitset of the indices of the other table's placements which do
+     * not overlap it. The array is shared and must not be modified.
+     */
+    int[] getCompatible(PlacementTable other) {
+        int[] result = compatible.get(other);
+        if (result == null) {
+            result = new int[masks.length];
+            for (int i = 0; i < masks.length; i++) {
+                for (int j = 0; j < other.masks.length; j++) {
+                    if ((masks[i] & other.masks[j]) == 0) {
+                        result[i] |= 1 << j;
+                    }
+                }
+            }
+            int[] existing = compatible.putIfAbsent(other, result);
+            if (existing != null) {
+                result = existing;
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,161 @@
+package discozoosolver;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes the optimal click for every game which could be played by following the solver's recommendations, and
+ * writes them to a PolicyTable.
+ * <p>
+ * Starting from each combination of animals in a location, the best click is found by search and every result of
+ * that click with a chance of happening is followed in turn, until every animal has been found. Observations which
+ * depart from the recommended clicks are not in the table, and boards fall back to searching for them.
+ * <p>
+ * Combinations are independent, so they are solved in parallel, with each search running on a single thread.
+ */
+public class PolicyGenerator {
+    private static final int SEARCH_TABLE_CAPACITY = 1 << 16;
+
+    private final Map<String, Location> locations;
+    private final Map<Long, Recommendation> recommendations;
+
+    /**
+     * Sole constructor for PolicyGenerator.
+     *
+     * @param locations The game data, as returned by GameDataParser.parseData.
+     */
+    public PolicyGenerator(Map<String, Location> locations) {
+        this.locations = locations;
+        this.recommendations = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Adds the recommendations for every combination of up to maxAnimals animals in each of the given locations.
+     *
+     * @param locationNames The names of the locations to include.
+     * @param maxAnimals    The largest number of animals in a game.
+     */
+    public void addLocations(List<String> locationNames, int maxAnimals) {
+        List<GameSession> games = new ArrayList<>();
+        for (String name : locationNames) {
+            Location location = locations.get(name);
+            if (location == null) {
+                throw new IllegalArgumentException("Unknown location: " + name);
+            }
+            addCombinations(location, new ArrayList<>(), 0, maxAnimals, games);
+        }
+        games.parallelStream().forEach(this::addGame);
+    }
+
+    /**
+     * Creates a new game for every combination of animals which extends the given one.
+     *
+     * @param location   The location of the games.
+     * @param chosen     The names of the animals chosen so far.
+     * @param next       The index of the first animal which may still be chosen.
+     * @param maxAnimals The largest number of animals in a game.
+     * @param games      The list to add the games to.
+     */
+    private static void addCombinations(Location location, List<String> chosen, int next, int maxAnimals,
+                                        List<GameSession> games) {
+        if (!chosen.isEmpty()) {
+            games.add(new GameSession(location, chosen));
+        }
+        if (chosen.size() == maxAnimals) {
+            return;
+        }
+        for (int i = next; i < location.getAnimals().size(); i++) {
+            chosen.add(location.getAnimals().get(i).getName());
+            addCombinations(location, chosen, i + 1, maxAnimals, games);
+            chosen.remove(chosen.size() - 1);
+        }
+    }
+
+    /**
+     * Adds the recommendations for a game and every game following from it by taking the recommended click.
+     *
+     * @param session A game.
+     */
+    public void addGame(GameSession session) {
+        long hash = session.getBoard().getStateHash();
+        if (recommendations.containsKey(hash)) {
+            return;
+        }
+        Recommendation recommendation = session.getBoard().search(SEARCH_TABLE_CAPACITY, null);
+        recommendations.put(hash, recommendation);
+        Block block = recommendation.getBlock();
+        if (block == null) {
+            return;
+        }
+
+        // Each result is applied to a copy of the game restored from its snapshot.
+        List<Location> locationIds = List.of(session.getLocation());
+        byte[] snapshot = session.toSnapshot(0);
+        Probabilities probabilities = session.getProbabilities();
+        int cell = block.index();
+        if (probabilities.getHitCount(cell) < probabilities.getLayoutCount()) {
+            GameSession miss = GameSession.fromSnapshot(snapshot, locationIds);
+            miss.miss(block.x(), block.y());
+            addGame(miss);
+        }
+        List<Animal> animals = session.getBoard().getAnimals();
+        for (int a = 0; a < animals.size(); a++) {
+            if (probabilities.getCount(a, cell) > 0) {
+                GameSession hit = GameSession.fromSnapshot(snapshot, locationIds);
+                hit.hit(block.x(), block.y(), animals.get(a).getName());
+                addGame(hit);
+            }
+        }
+    }
+
+    /**
+     * @return The number of recommendations found so far.
+     */
+    public int size() {
+        return recommendations.size();
+    }
+
+    /**
+     * Writes the recommendations found so far to a policy table.
+     *
+     * @param path The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void write(Path path) throws IOException {
+        PolicyTable.write(path, recommendations);
+    }
+
+    /**
+     * Generates a policy table.
+     * <p>
+     * Usage: PolicyGenerator output maxAnimals [location...]
+     * <p>
+     * Every location is included if none are named. Single animals take about a minute in total, most of it spent on
+     * the two cell animals, which need many clicks to find. Two or three animals take far longer, so it is best to
+     * name only the locations needed.
+     *
+     * @param args The output file, the largest number of animals in a game and optionally the locations to include.
+     * @throws IOException If the table cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: PolicyGenerator output maxAnimals [location...]");
+            System.exit(1);
+        }
+        Map<String, Location> locations = GameDataParser.parseData();
+        List<String> names = args.length > 2 ? List.of(args).subList(2, args.length)
+                : new ArrayList<>(locations.keySet());
+
+        long start = System.nanoTime();
+        PolicyGenerator generator = new PolicyGenerator(locations);
+        generator.addLocations(names, Integer.parseInt(args[1]));
+        generator.write(Paths.get(args[0]));
+        System.out.printf("Wrote %d recommendations to %s in %.1fs%n", generator.size(), args[0],
+                (System.nanoTime() - start) / 1e9);
+    }
+}
@@ -0,0 +1,215 @@
+package discozoosolver;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * A precomputed table of recommendations, keyed by the hash of the observations they were made for, which is read
+ * directly from a memory-mapped file. Opening a table maps the file without reading it, and each lookup touches only
+ * the few entries it probes, so the table never occupies the heap however large it is.
+ * <p>
+ * The file is an open addressing hash table with linear probing, written by PolicyGenerator:
+ * - A header of the magic number, the format version, the number of entries and the capacity, each a 32 bit int.
+ * - capacity 64 bit keys, where an empty slot holds 0.
+ * - capacity 32 bit values, each holding the recommended cell in the low 5 bits, or 31 if no click remains, and the
+ * expected number of clicks to finish as a fixed point number with 16 fractional bits in the rest.
+ * Fixed width entries keep the file small while leaving every entry directly addressable, which a general purpose
+ * compressor would not.
+ * <p>
+ * If the system property discozoosolver.policy names a table, boards consult it before searching.
+ */
+public final class PolicyTable {
+    /** The system property naming the table used by boards. */
+    public static final String PROPERTY = "discozoosolver.policy";
+
+    private static final int MAGIC = 0x445a5054;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int NO_CELL = 31;
+    private static final int CELL_BITS = 5;
+    private static final double CLICK_SCALE = 1 << 16;
+    private static final double MAX_LOAD = 0.5;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    private final int mask;
+    private final int valuesOffset;
+
+    /**
+     * @param buffer The table's contents, positioned at its start.
+     */
+    private PolicyTable(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.BIG_ENDIAN);
+        if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not a policy table");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Unsupported policy table version: " + buffer.getInt(4));
+        }
+        this.size = buffer.getInt(8);
+        int capacity = buffer.getInt(12);
+        if (Integer.bitCount(capacity) != 1 || buffer.limit() != HEADER_BYTES + 12L * capacity) {
+            throw new IllegalArgumentException("Policy table is truncated or corrupt");
+        }
+        this.mask = capacity - 1;
+        this.valuesOffset = HEADER_BYTES + 8 * capacity;
+    }
+
+    /**
+     * Maps a table from a file.
+     *
+     * @param path The file written by PolicyGenerator.
+     * @return The table.
+     * @throws IOException If the file cannot be read.
+     */
+    public static PolicyTable map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed.
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new PolicyTable(buffer);
+        }
+    }
+
+    /**
+     * Maps the table named by the discozoosolver.policy system property, if any.
+     *
+     * @return The table, or null if the property is not set or the table cannot be read.
+     */
+    static PolicyTable fromProperty() {
+        String path = System.getProperty(PROPERTY);
+        if (path == null) {
+            return null;
+        }
+        try {
+            return map(Paths.get(path));
+        } catch (IOException | RuntimeException e) {
+            Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.WARNING, "Unable to map policy table " + path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Looks up the recommendation for the given observations.
+     *
+     * @param hash The hash of the observations, as returned by Board.getStateHash.
+     * @return The recommendation, or null if the table does not hold these observations.
+     */
+    public Recommendation get(long hash) {
+        if (hash == 0) {
+            return null;
+        }
+        for (int slot = index(hash, mask); ; slot = (slot + 1) & mask) {
+            long key = buffer.getLong(HEADER_BYTES + 8 * slot);
+            if (key == hash) {
+                return decode(buffer.getInt(valuesOffset + 4 * slot));
+            }
+            if (key == 0) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * @return The number of recommendations in the table.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Writes recommendations to a file in the format read by map.
+     *
+     * @param path            The file to write, which is replaced if it exists.
+     * @param recommendations The recommendations by the hash of the observations they were made for. A hash of 0 is
+     *                        reserved for empty slots and is skipped.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void write(Path path, Map<Long, Recommendation> recommendations) throws IOException {
+        int capacity = Integer.highestOneBit(Math.max(1, (int) (recommendations.size() / MAX_LOAD)) * 2 - 1);
+        int mask = capacity - 1;
+        long[] keys = new long[capacity];
+        int[] values = new int[capacity];
+        int size = 0;
+        for (Map.Entry<Long, Recommendation> entry : recommendations.entrySet()) {
+            long hash = entry.getKey();
+            if (hash == 0) {
+                continue;
+            }
+            int slot = index(hash, mask);
+            while (keys[slot] != 0 && keys[slot] != hash) {
+                slot = (slot + 1) & mask;
+            }
+            size += keys[slot] == 0 ? 1 : 0;
+            keys[slot] = hash;
+            values[slot] = encode(entry.getValue());
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 12 * capacity);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(capacity);
+        buffer.asLongBuffer().put(keys);
+        buffer.position(HEADER_BYTES + 8 * capacity);
+        buffer.asIntBuffer().put(values);
+        buffer.rewind();
+
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * @param hash The hash of some observations.
+     * @param mask The capacity of the table less one.
+     * @return The slot at which probing for the hash starts.
+     */
+    private static int index(long hash, int mask) {
+        // Zobrist hashes are already well mixed, so folding the high bits in is enough.
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * @param recommendation The recommendation to encode.
+     * @return The recommendation packed into a table value.
+     */
+    private static int encode(Recommendation recommendation) {
+        Block block = recommendation.getBlock();
+        int cell = block == null ? NO_CELL : block.index();
+        long clicks = Math.round(recommendation.getExpectedClicks() * CLICK_SCALE);
+        if (clicks < 0 || clicks >= 1L << (32 - CELL_BITS)) {
+            throw new IllegalArgumentException("Expected clicks out of range: " + recommendation.getExpectedClicks());
+        }
+        return (int) (clicks << CELL_BITS) | cell;
+    }
+
+    /**
+     * @param value A table value.
+     * @return The recommendation it holds.
+     */
+    private static Recommendation decode(int value) {
+        int cell = value & ((1 << CELL_BITS) - 1);
+        double clicks = (value >>> CELL_BITS) / CLICK_SCALE;
+        Block block = cell == NO_CELL ? null : new Block(cell % Constants.BOARD_SIZE, cell / Constants.BOARD_SIZE);
+        return new Recommendation(block, clicks);
+    }
+
+    @Override
+    public String toString() {
+        return "PolicyTable{size=" + size + ", capacity=" + (mask + 1) + "}";
+    }
+}
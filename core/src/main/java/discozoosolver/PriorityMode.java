@@ -0,0 +1,14 @@
+package discozoosolver;
+
+/**
+ * The rule used by the board to choose which cells to highlight as a priority.
+ * <p>
+ * - Count: cells are ranked by the number of candidates, of any animal, which contain them. Candidates for different
+ * animals are counted independently even if they could never appear together.
+ * - Exact: cells are ranked by their exact probability of containing an animal, taken over every combination of
+ * non-overlapping candidates which agrees with the confirmed hits and misses.
+ */
+public enum PriorityMode {
+    COUNT,
+    EXACT
+}
@@ -0,0 +1,139 @@
+package discozoosolver;
+
+/**
+ * An immutable class holding the exact probability that each cell contains each animal.
+ * <p>
+ * A layout is a combination of one candidate per animal in which no two candidates overlap. Every layout which agrees
+ * with the confirmed hits and misses is equally likely, so the probability that an animal occupies a cell is the
+ * number of layouts in which it does divided by the total number of layouts. Candidates are given as bitmasks grouped
+ * by animal, as produced by the board, and are expected to already agree with the confirmed hits and misses.
+ */
+public class Probabilities {
+    private final long layoutCount;
+    private final long[][] counts;
+
+    /**
+     * Private constructor for Probabilities, instances are created through calculate.
+     *
+     * @param layoutCount The number of valid layouts.
+     * @param counts      The number of layouts in which each animal occupies each cell.
+     */
+    private Probabilities(long layoutCount, long[][] counts) {
+        this.layoutCount = layoutCount;
+        this.counts = counts;
+    }
+
+    /**
+     * Enumerates every valid layout of the given candidates and counts how often each animal occupies each cell.
+     *
+     * @param placements The candidate bitmasks for each animal, indexed by animal.
+     * @return The resulting probabilities.
+     */
+    public static Probabilities calculate(int[][] placements) {
+        int animalCount = placements.length;
+        long[][] weights = new long[animalCount][];
+        for (int a = 0; a < animalCount; a++) {
+            weights[a] = new long[placements[a].length];
+        }
+
+        long layoutCount = animalCount == 0 ? 0 : enumerate(placements, 0, 0, new int[animalCount], weights);
+
+        // Each candidate's weight is the number of layouts it appears in, which is then spread over its cells.
+        long[][] counts = new long[animalCount][Constants.BOARD_SIZE * Constants.BOARD_SIZE];
+        for (int a = 0; a < animalCount; a++) {
+            for (int i = 0; i < placements[a].length; i++) {
+                long weight = weights[a][i];
+                if (weight == 0) {
+                    continue;
+                }
+                for (int bits = placements[a][i]; bits != 0; bits &= bits - 1) {
+                    counts[a][Integer.numberOfTrailingZeros(bits)] += weight;
+                }
+            }
+        }
+        return new Probabilities(layoutCount, counts);
+    }
+
+    /**
+     * Recursively chooses a non-overlapping candidate for each animal from the given animal onwards. Each complete
+     * layout increments the weight of every candidate it uses.
+     *
+     * @param placements The candidate bitmasks for each animal.
+     * @param animal     The index of the animal to place next.
+     * @param occupied   The bitmask of cells occupied by the animals already placed.
+     * @param chosen     The index of the candidate chosen for each animal already placed.
+     * @param weights    The number of layouts found so far for each candidate.
+     * @return The number of layouts found below this point.
+     */
+    private static long enumerate(int[][] placements, int animal, int occupied, int[] chosen, long[][] weights) {
+        int[] options = placements[animal];
+        long found = 0;
+        if (animal == placements.length - 1) {
+            // The last animal completes a layout with every candidate that fits so no further recursion is needed.
+            for (int i = 0; i < options.length; i++) {
+                if ((options[i] & occupied) == 0) {
+                    weights[animal][i]++;
+                    found++;
+                }
+            }
+            if (found > 0) {
+                for (int a = 0; a < animal; a++) {
+                    weights[a][chosen[a]] += found;
+                }
+            }
+            return found;
+        }
+        for (int i = 0; i < options.length; i++) {
+            if ((options[i] & occupied) == 0) {
+                chosen[animal] = i;
+                found += enumerate(placements, animal + 1, occupied | options[i], chosen, weights);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * @return The number of valid layouts.
+     */
+    public long getLayoutCount() {
+        return layoutCount;
+    }
+
+    /**
+     * @param animal The index of the animal.
+     * @param cell   The index of the cell.
+     * @return The number of valid layouts in which the animal occupies the cell.
+     */
+    public long getCount(int animal, int cell) {
+        return counts[animal][cell];
+    }
+
+    /**
+     * @param cell The index of the cell.
+     * @return The number of valid layouts in which any animal occupies the cell.
+     */
+    public long getHitCount(int cell) {
+        long total = 0;
+        for (long[] animalCounts : counts) {
+            total += animalCounts[cell];
+        }
+        return total;
+    }
+
+    /**
+     * @param animal The index of the animal.
+     * @param cell   The index of the cell.
+     * @return The probability that the animal occupies the cell.
+     */
+    public double getProbability(int animal, int cell) {
+        return layoutCount == 0 ? 0 : (double) counts[animal][cell] / layoutCount;
+    }
+
+    /**
+     * @param cell The index of the cell.
+     * @return The probability that any animal occupies the cell.
+     */
+    public double getHitProbability(int cell) {
+        return layoutCount == 0 ? 0 : (double) getHitCount(cell) / layoutCount;
+    }
+}
@@ -0,0 +1,65 @@
+package discozoosolver;
+
+/**
+ * An immutable class representing the click recommended by the solver along with the expected number of clicks
+ * remaining, including the recommended one, to uncover every animal when playing optimally from that point.
+ * <p>
+ * A search which runs out of budget recommends the most likely cell instead. Such a recommendation is not exact, and
+ * its expected clicks are only a lower bound.
+ */
+public class Recommendation {
+    private final Block block;
+    private final double expectedClicks;
+    private final boolean exact;
+
+    /**
+     * Constructor for Recommendation which sets the block and expected clicks as provided, for an exact
+     * recommendation.
+     *
+     * @param block          The block which should be clicked next, or null if every animal has been uncovered.
+     * @param expectedClicks The expected number of clicks remaining.
+     */
+    public Recommendation(Block block, double expectedClicks) {
+        this(block, expectedClicks, true);
+    }
+
+    /**
+     * Constructor for Recommendation which sets the block, expected clicks and exactness as provided.
+     *
+     * @param block          The block which should be clicked next, or null if every animal has been uncovered.
+     * @param expectedClicks The expected number of clicks remaining, or a lower bound on it if not exact.
+     * @param exact          Whether the block is the optimal click and the expected clicks are exact.
+     */
+    public Recommendation(Block block, double expectedClicks, boolean exact) {
+        this.block = block;
+        this.expectedClicks = expectedClicks;
+        this.exact = exact;
+    }
+
+    /**
+     * @return The block which should be clicked next, or null if every animal has been uncovered.
+     */
+    public Block getBlock() {
+        return block;
+    }
+
+    /**
+     * @return The expected number of clicks remaining.
+     */
+    public double getExpectedClicks() {
+        return expectedClicks;
+    }
+
+    /**
+     * @return Whether the block is the optimal click, rather than the most likely cell chosen when the search ran out
+     * of budget.
+     */
+    public boolean isExact() {
+        return exact;
+    }
+
+    @Override
+    public String toString() {
+        return block + ": " + expectedClicks;
+    }
+}
@@ -0,0 +1,280 @@
+package discozoosolver;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Holds game sessions by id, keeping as many resident as fit within a memory budget. When the estimated size of the
+ * resident sessions exceeds the budget, the least recently used sessions are spilled to compact snapshots of a few
+ * dozen bytes, and restored by replaying their results the next time they are used.
+ * <p>
+ * Each session has its own lock, so requests for different sessions never wait on each other. Eviction is run by
+ * whichever caller first finds the store over budget, and skips any session which is in use.
+ */
+public class SessionStore {
+    /* Evicting down to a fraction of the budget rather than to the budget itself means eviction runs less often. */
+    private static final double EVICTION_TARGET = 0.9;
+
+    private final List<Location> locations;
+    private final long byteBudget;
+    private final Map<String, Entry> entries;
+    private final AtomicLong residentBytes;
+    private final AtomicInteger residentCount;
+    private final ReentrantLock evictionLock;
+
+    /**
+     * Sole constructor for SessionStore.
+     *
+     * @param locations  The game data, as returned by GameDataParser.parseData.
+     * @param byteBudget The estimated memory which resident sessions may hold, in bytes.
+     */
+    public SessionStore(Map<String, Location> locations, long byteBudget) {
+        if (byteBudget < 0) {
+            throw new IllegalArgumentException("Byte budget must not be negative: " + byteBudget);
+        }
+        if (locations.size() > 256) {
+            throw new IllegalArgumentException("Snapshots can only identify 256 locations");
+        }
+        this.locations = new ArrayList<>(locations.values());
+        this.byteBudget = byteBudget;
+        this.entries = new ConcurrentHashMap<>();
+        this.residentBytes = new AtomicLong();
+        this.residentCount = new AtomicInteger();
+        this.evictionLock = new ReentrantLock();
+    }
+
+    /**
+     * Adds a session to the store, replacing any session with the same id.
+     *
+     * @param id      The id of the session.
+     * @param session The session.
+     */
+    public void put(String id, GameSession session) {
+        int locationId = locations.indexOf(session.getLocation());
+        if (locationId < 0) {
+            throw new IllegalArgumentException("Unknown location: " + session.getLocation().getName());
+        }
+        Entry entry = new Entry(locationId);
+        entry.session = session;
+        entry.size = session.estimateSize();
+        entry.lastUsed = System.nanoTime();
+        residentBytes.addAndGet(entry.size);
+        residentCount.incrementAndGet();
+        Entry replaced = entries.put(id, entry);
+        if (replaced != null) {
+            discard(replaced);
+        }
+        evictIfOverBudget();
+    }
+
+    /**
+     * Runs an action on a session while holding its lock, restoring the session from its snapshot first if it has
+     * been spilled.
+     *
+     * @param id     The id of the session.
+     * @param action The action to run.
+     * @param <T>    The type of the action's result.
+     * @return The result of the action.
+     * @throws NoSuchElementException If there is no session with the given id.
+     */
+    public <T> T withSession(String id, Function<GameSession, T> action) {
+        Entry entry = entries.get(id);
+        if (entry == null) {
+            throw new NoSuchElementException("Unknown session: " + id);
+        }
+        T result;
+        entry.lock.lock();
+        try {
+            if (entry.removed) {
+                throw new NoSuchElementException("Unknown session: " + id);
+            }
+            if (entry.session == null) {
+                entry.session = GameSession.fromSnapshot(entry.snapshot, locations);
+                entry.snapshot = null;
+                entry.size = entry.session.estimateSize();
+                residentBytes.addAndGet(entry.size);
+                residentCount.incrementAndGet();
+            }
+            entry.lastUsed = System.nanoTime();
+            try {
+                result = action.apply(entry.session);
+            } finally {
+                // Results eliminate candidates, so the session usually shrinks.
+                long size = entry.session.estimateSize();
+                residentBytes.addAndGet(size - entry.size);
+                entry.size = size;
+            }
+        } finally {
+            entry.lock.unlock();
+        }
+        evictIfOverBudget();
+        return result;
+    }
+
+    /**
+     * Removes a session from the store.
+     *
+     * @param id The id of the session.
+     * @return Whether there was a session with the given id.
+     */
+    public boolean remove(String id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        discard(entry);
+        return true;
+    }
+
+    /**
+     * Spills the least recently used sessions until the resident sessions fit comfortably within the budget. Only one
+     * caller evicts at a time; others carry on rather than wait.
+     */
+    private void evictIfOverBudget() {
+        if (residentBytes.get() <= byteBudget || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            // Other requests update lastUsed while this runs, so each entry is sorted by a copy of it taken up front.
+            List<Resident> resident = new ArrayList<>();
+            for (Entry entry : entries.values()) {
+                if (entry.session != null) {
+                    resident.add(new Resident(entry, entry.lastUsed));
+                }
+            }
+            resident.sort(Comparator.comparingLong(candidate -> candidate.lastUsed));
+            long target = (long) (byteBudget * EVICTION_TARGET);
+            for (Resident candidate : resident) {
+                if (residentBytes.get() <= target) {
+                    break;
+                }
+                Entry entry = candidate.entry;
+                if (entry.lock.tryLock()) {
+                    try {
+                        spill(entry);
+                    } finally {
+                        entry.lock.unlock();
+                    }
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    /**
+     * Replaces a resident session with its snapshot. The caller must hold the entry's lock.
+     *
+     * @param entry The entry to spill.
+     */
+    private void spill(Entry entry) {
+        if (entry.removed || entry.session == null) {
+            return;
+        }
+        entry.snapshot = entry.session.toSnapshot(entry.locationId);
+        entry.session = null;
+        residentBytes.addAndGet(-entry.size);
+        residentCount.decrementAndGet();
+        entry.size = 0;
+    }
+
+    /**
+     * Releases the memory accounted to an entry which has been removed from the map.
+     *
+     * @param entry The removed entry.
+     */
+    private void discard(Entry entry) {
+        entry.lock.lock();
+        try {
+            entry.removed = true;
+            if (entry.session != null) {
+                entry.session = null;
+                residentBytes.addAndGet(-entry.size);
+                residentCount.decrementAndGet();
+            }
+            entry.snapshot = null;
+        } finally {
+            entry.lock.unlock();
+        }
+    }
+
+    /**
+     * @return The number of sessions in the store.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return The number of sessions held in memory as boards.
+     */
+    public int getResidentCount() {
+        return residentCount.get();
+    }
+
+    /**
+     * @return The number of sessions held only as snapshots.
+     */
+    public int getSpilledCount() {
+        return Math.max(0, entries.size() - residentCount.get());
+    }
+
+    /**
+     * @return The estimated memory held by resident sessions, in bytes.
+     */
+    public long getResidentBytes() {
+        return residentBytes.get();
+    }
+
+    /**
+     * @return The estimated memory which resident sessions may hold, in bytes.
+     */
+    public long getByteBudget() {
+        return byteBudget;
+    }
+
+    @Override
+    public String toString() {
+        return "SessionStore{resident=" + getResidentCount() + ", spilled=" + getSpilledCount() + ", residentBytes="
+                + getResidentBytes() + ", byteBudget=" + byteBudget + "}";
+    }
+
+    /**
+     * A session in the store, which holds either the session itself or its snapshot. Everything but lastUsed and the
+     * check for residency during eviction is guarded by the entry's lock.
+     */
+    private static final class Entry {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final int locationId;
+        private volatile GameSession session;
+        private volatile long lastUsed;
+        private byte[] snapshot;
+        private long size;
+        private boolean removed;
+
+        private Entry(int locationId) {
+            this.locationId = locationId;
+        }
+    }
+
+    /**
+     * A resident entry considered for eviction, with when it was last used as of the start of the eviction.
+     */
+    private static final class Resident {
+        private final Entry entry;
+        private final long lastUsed;
+
+        private Resident(Entry entry, long lastUsed) {
+            this.entry = entry;
+            this.lastUsed = lastUsed;
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package discozoosolver;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * A single game played out against a known hidden layout, for use by the simulator.
+ * <p>
+ * The game tracks what a player would know after each click: the candidates of each animal which agree with the
+ * results so far and, for strategies which need them, the valid layouts along with the number of them in which each
+ * cell is a hit. Hit counts are updated as layouts are removed rather than recounted for every click. Everything is
+ * held in arrays which are reused from one game to the next, so playing a game allocates nothing.
+ * <p>
+ * The count strategy is the exception. It is played on a real board, clicking the cells the board marks as known and
+ * otherwise the cells it gives priority, so that the simulator measures exactly what the app highlights, known cell
+ * propagation included.
+ */
+class SimulatedGame {
+    private static final int CELLS = Constants.BOARD_SIZE * Constants.BOARD_SIZE;
+
+    private final List<Animal> animals;
+    private final Board board;
+    private final int[][] placements;
+    private final int animalCount;
+    private final int[] layouts;
+    private final int[] unions;
+    private final int[][] candidates;
+    private final int[] candidateCounts;
+    private final int[] remaining;
+    private final int[] initialHitCounts = new int[CELLS];
+    private final int[][] initialAnimalHitCounts;
+    private final int[] hitCounts = new int[CELLS];
+    private final int[][] animalHitCounts;
+    private int remainingCount;
+    private int hidden;
+    private int revealed;
+
+    /**
+     * @param animals    The animals hidden on the board.
+     * @param placements The candidate bitmasks for each animal before any clicks.
+     * @param layouts    The bitmask of each animal in each valid layout, flattened by layout.
+     * @param unions     The bitmask of every cell occupied in each valid layout.
+     */
+    SimulatedGame(List<Animal> animals, int[][] placements, int[] layouts, int[] unions) {
+        this.animals = animals;
+        this.board = new Board();
+        this.placements = placements;
+        this.animalCount = placements.length;
+        this.layouts = layouts;
+        this.unions = unions;
+        this.candidates = new int[animalCount][];
+        for (int a = 0; a < animalCount; a++) {
+            candidates[a] = new int[placements[a].length];
+        }
+        this.candidateCounts = new int[animalCount];
+        this.remaining = new int[unions.length];
+        this.animalHitCounts = new int[animalCount][CELLS];
+        this.initialAnimalHitCounts = new int[animalCount][CELLS];
+        for (int layout = 0; layout < unions.length; layout++) {
+            for (int a = 0; a < animalCount; a++) {
+                for (int bits = layouts[layout * animalCount + a]; bits != 0; bits &= bits - 1) {
+                    int cell = Integer.numberOfTrailingZeros(bits);
+                    initialHitCounts[cell]++;
+                    initialAnimalHitCounts[a][cell]++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Plays a game to completion, clicking until every animal cell has been revealed.
+     *
+     * @param hidden   The index of the layout the animals are really in.
+     * @param strategy The rule used to choose each click.
+     * @param random   The source of randomness for strategies which need it.
+     * @return The number of clicks made.
+     */
+    int play(int hidden, Strategy strategy, SplittableRandom random) {
+        this.hidden = hidden;
+        this.revealed = 0;
+        if (strategy == Strategy.COUNT) {
+            return playOnBoard();
+        }
+        for (int a = 0; a < animalCount; a++) {
+            System.arraycopy(placements[a], 0, candidates[a], 0, placements[a].length);
+            candidateCounts[a] = placements[a].length;
+        }
+        if (strategy.usesLayouts()) {
+            for (int i = 0; i < unions.length; i++) {
+                remaining[i] = i;
+            }
+            remainingCount = unions.length;
+            System.arraycopy(initialHitCounts, 0, hitCounts, 0, CELLS);
+            for (int a = 0; a < animalCount; a++) {
+                System.arraycopy(initialAnimalHitCounts[a], 0, animalHitCounts[a], 0, CELLS);
+            }
+        }
+
+        int target = unions[hidden];
+        while ((target & ~revealed) != 0) {
+            click(chooseCell(strategy, random), strategy.usesLayouts());
+        }
+        return Integer.bitCount(revealed);
+    }
+
+    /**
+     * Plays a game to completion on the board, clicking a cell the board knows to hold an animal if there is one and
+     * otherwise a cell the board gives priority, the first in reading order in either case.
+     *
+     * @return The number of clicks made.
+     */
+    private int playOnBoard() {
+        board.resetBoard();
+        for (Animal animal : animals) {
+            board.addAnimal(animal);
+        }
+        board.generateCandidates();
+        int target = unions[hidden];
+        while ((target & ~revealed) != 0) {
+            BoardSnapshot state = board.snapshot();
+            int choices = state.getKnown() & ~revealed;
+            if (choices == 0) {
+                choices = state.getPriority() & ~revealed;
+            }
+            if (choices == 0) {
+                throw new IllegalStateException("The board gives no cell priority before every animal is found");
+            }
+            int cell = Integer.numberOfTrailingZeros(choices);
+            Block block = new Block(cell % Constants.BOARD_SIZE, cell / Constants.BOARD_SIZE);
+            int found = animalAt(cell);
+            revealed |= 1 << cell;
+            if (found < 0) {
+                board.confirmMiss(block);
+            } else {
+                board.confirmHit(block, animals.get(found).getName());
+            }
+        }
+        return Integer.bitCount(revealed);
+    }
+
+    /**
+     * @param strategy The rule used to choose the click.
+     * @param random   The source of randomness for strategies which need it.
+     * @return The index of the cell to click next.
+     */
+    private int chooseCell(Strategy strategy, SplittableRandom random) {
+        switch (strategy) {
+            case EXACT:
+                return chooseByProbability();
+            case ENTROPY:
+                return chooseByEntropy();
+            case RANDOM:
+                return chooseAtRandom(random);
+            default:
+                throw new IllegalArgumentException("Unknown strategy: " + strategy);
+        }
+    }
+
+    /**
+     * Reveals a cell and removes every candidate and layout which disagrees with its contents.
+     *
+     * @param cell        The index of the cell to click.
+     * @param withLayouts Whether the valid layouts are being tracked.
+     */
+    private void click(int cell, boolean withLayouts) {
+        int bit = 1 << cell;
+        revealed |= bit;
+        int found = animalAt(cell);
+
+        // As on the board, the animal found must cover the cell and every other animal must not.
+        for (int a = 0; a < animalCount; a++) {
+            boolean keepCovering = a == found;
+            int[] options = candidates[a];
+            int kept = 0;
+            for (int i = 0; i < candidateCounts[a]; i++) {
+                if (((options[i] & bit) != 0) == keepCovering) {
+                    options[kept++] = options[i];
+                }
+            }
+            candidateCounts[a] = kept;
+        }
+
+        if (withLayouts) {
+            int kept = 0;
+            for (int i = 0; i < remainingCount; i++) {
+                int layout = remaining[i];
+                boolean agrees = found < 0 ? (unions[layout] & bit) == 0
+                        : (layouts[layout * animalCount + found] & bit) != 0;
+                if (agrees) {
+                    remaining[kept++] = layout;
+                } else {
+                    removeLayoutHits(layout);
+                }
+            }
+            remainingCount = kept;
+        }
+    }
+
+    /**
+     * @param cell The index of a cell.
+     * @return The index of the animal occupying the cell in the hidden layout, or -1 if the cell is empty.
+     */
+    private int animalAt(int cell) {
+        int bit = 1 << cell;
+        for (int a = 0; a < animalCount; a++) {
+            if ((layouts[hidden * animalCount + a] & bit) != 0) {
+                return a;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The index of the unrevealed cell which is a hit in the most valid layouts.
+     */
+    private int chooseByProbability() {
+        return mostHits();
+    }
+
+    /**
+     * Chooses the unrevealed cell whose result is hardest to predict. The entropy of a cell is calculated over its
+     * possible results, a miss or a hit on each animal, weighted by the number of layouts giving each.
+     *
+     * @return The index of the cell to click.
+     */
+    private int chooseByEntropy() {
+        int best = -1;
+        double bestEntropy = 0;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (((revealed >>> cell) & 1) != 0 || hitCounts[cell] == 0) {
+                continue;
+            }
+            double entropy = entropyTerm(remainingCount - hitCounts[cell]);
+            for (int a = 0; a < animalCount; a++) {
+                entropy += entropyTerm(animalHitCounts[a][cell]);
+            }
+            if (best < 0 || entropy > bestEntropy + 1e-12
+                    || (entropy > bestEntropy - 1e-12 && hitCounts[cell] > hitCounts[best])) {
+                best = cell;
+                bestEntropy = entropy;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param count The number of layouts giving a result.
+     * @return The result's contribution to the entropy, in nats.
+     */
+    private double entropyTerm(int count) {
+        if (count == 0) {
+            return 0;
+        }
+        double probability = (double) count / remainingCount;
+        return -probability * Math.log(probability);
+    }
+
+    /**
+     * @param random The source of randomness.
+     * @return The index of a random unrevealed cell covered by a remaining candidate.
+     */
+    private int chooseAtRandom(SplittableRandom random) {
+        int possible = 0;
+        for (int a = 0; a < animalCount; a++) {
+            for (int i = 0; i < candidateCounts[a]; i++) {
+                possible |= candidates[a][i];
+            }
+        }
+        possible &= ~revealed;
+        for (int skip = random.nextInt(Integer.bitCount(possible)); skip > 0; skip--) {
+            possible &= possible - 1;
+        }
+        return Integer.numberOfTrailingZeros(possible);
+    }
+
+    /**
+     * Removes a layout which no longer agrees with the results from the hit counts of its cells.
+     *
+     * @param layout The index of the layout.
+     */
+    private void removeLayoutHits(int layout) {
+        int base = layout * animalCount;
+        for (int a = 0; a < animalCount; a++) {
+            for (int bits = layouts[base + a]; bits != 0; bits &= bits - 1) {
+                int cell = Integer.numberOfTrailingZeros(bits);
+                hitCounts[cell]--;
+                animalHitCounts[a][cell]--;
+            }
+        }
+    }
+
+    /**
+     * @return The index of the unrevealed cell with the highest hit count, taking the first in reading order on ties.
+     */
+    private int mostHits() {
+        int best = -1;
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (((revealed >>> cell) & 1) == 0 && hitCounts[cell] > 0
+                    && (best < 0 || hitCounts[cell] > hitCounts[best])) {
+                best = cell;
+            }
+        }
+        return best;
+    }
+}
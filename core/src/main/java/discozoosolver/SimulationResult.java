@@ -0,0 +1,128 @@
+package discozoosolver;
+
+/**
+ * An immutable summary of a batch of simulated games.
+ * <p>
+ * A game can never take more clicks than there are cells, so results are kept as a histogram of clicks to completion.
+ * This keeps the summary the same size however many games are played and lets the results of separate batches be
+ * combined exactly.
+ */
+public class SimulationResult {
+    private static final int CELLS = Constants.BOARD_SIZE * Constants.BOARD_SIZE;
+
+    private final long[] histogram;
+    private final long games;
+    private final int clickBudget;
+
+    /**
+     * Constructor for SimulationResult which summarises the given histogram.
+     *
+     * @param histogram   The number of games completed in each number of clicks, indexed by clicks.
+     * @param clickBudget The number of clicks within which a game counts as a success.
+     */
+    SimulationResult(long[] histogram, int clickBudget) {
+        this.histogram = histogram.clone();
+        this.clickBudget = clickBudget;
+        long total = 0;
+        for (long count : histogram) {
+            total += count;
+        }
+        this.games = total;
+    }
+
+    /**
+     * @param clickBudget The number of clicks within which a game counts as a success.
+     * @return A result of no games.
+     */
+    static SimulationResult empty(int clickBudget) {
+        return new SimulationResult(new long[CELLS + 1], clickBudget);
+    }
+
+    /**
+     * @param other The result of another batch of games played with the same click budget.
+     * @return The result of both batches together.
+     */
+    SimulationResult combine(SimulationResult other) {
+        long[] combined = histogram.clone();
+        for (int clicks = 0; clicks < combined.length; clicks++) {
+            combined[clicks] += other.histogram[clicks];
+        }
+        return new SimulationResult(combined, clickBudget);
+    }
+
+    /**
+     * @return The number of games played.
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * @param clicks A number of clicks.
+     * @return The number of games completed in exactly that many clicks.
+     */
+    public long getGames(int clicks) {
+        return clicks < 0 || clicks >= histogram.length ? 0 : histogram[clicks];
+    }
+
+    /**
+     * @return The mean number of clicks to uncover every animal.
+     */
+    public double getMeanClicks() {
+        if (games == 0) {
+            return 0;
+        }
+        double total = 0;
+        for (int clicks = 0; clicks < histogram.length; clicks++) {
+            total += (double) clicks * histogram[clicks];
+        }
+        return total / games;
+    }
+
+    /**
+     * @param percentile The percentile to find, between 0 and 100.
+     * @return The smallest number of clicks within which at least the given percentage of games were completed.
+     */
+    public int getPercentileClicks(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        }
+        double target = percentile / 100 * games;
+        long seen = 0;
+        for (int clicks = 0; clicks < histogram.length; clicks++) {
+            seen += histogram[clicks];
+            if (seen > 0 && seen >= target) {
+                return clicks;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return The click budget within which a game counts as a success.
+     */
+    public int getClickBudget() {
+        return clickBudget;
+    }
+
+    /**
+     * @return The proportion of games in which every animal was uncovered within the click budget.
+     */
+    public double getSuccessRate() {
+        if (games == 0) {
+            return 0;
+        }
+        long successes = 0;
+        for (int clicks = 0; clicks <= Math.min(clickBudget, histogram.length - 1); clicks++) {
+            successes += histogram[clicks];
+        }
+        return (double) successes / games;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("games=%d mean=%.4f p50=%d p90=%d p99=%d success(<=%d)=%.4f", games, getMeanClicks(),
+                getPercentileClicks(50), getPercentileClicks(90), getPercentileClicks(99), clickBudget,
+                getSuccessRate());
+    }
+}
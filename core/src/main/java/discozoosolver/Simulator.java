@@ -0,0 +1,154 @@
+package discozoosolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * A headless simulator which measures how well a strategy plays.
+ * <p>
+ * Each game picks a hidden layout uniformly at random from every valid layout of the animals, then clicks cells chosen
+ * by the strategy until every animal has been uncovered. Games are played in fixed size chunks spread over every core,
+ * and each chunk has its own random stream split from the seed up front, so a given seed always gives the same
+ * result whatever the number of threads.
+ */
+public class Simulator {
+    private static final int CHUNK_SIZE = 1 << 14;
+
+    private final List<Animal> animals;
+    private final int[][] placements;
+    private final int[] layouts;
+    private final int[] unions;
+
+    /**
+     * Sole constructor for Simulator which enumerates every valid layout of the given animals.
+     *
+     * @param animals The animals hidden on the board.
+     */
+    public Simulator(List<Animal> animals) {
+        if (animals.isEmpty()) {
+            throw new IllegalArgumentException("At least one animal is needed to simulate a game");
+        }
+        this.animals = List.copyOf(animals);
+        this.placements = new int[animals.size()][];
+        for (int a = 0; a < animals.size(); a++) {
+            PlacementTable table = PlacementTable.forPattern(animals.get(a).getPattern());
+            placements[a] = new int[table.size()];
+            for (int i = 0; i < table.size(); i++) {
+                placements[a][i] = table.getMask(i);
+            }
+        }
+        LayoutBuilder builder = new LayoutBuilder(placements);
+        this.layouts = builder.getLayouts();
+        this.unions = builder.getUnions();
+    }
+
+    /**
+     * Plays the given number of games with the in-game click budget.
+     *
+     * @param strategy The rule used to choose each click.
+     * @param games    The number of games to play.
+     * @param seed     The seed from which every random choice is derived.
+     * @return The summary of the games played.
+     */
+    public SimulationResult run(Strategy strategy, long games, long seed) {
+        return run(strategy, games, seed, Constants.CLICK_BUDGET);
+    }
+
+    /**
+     * Plays the given number of games, spread over every available core.
+     *
+     * @param strategy    The rule used to choose each click.
+     * @param games       The number of games to play.
+     * @param seed        The seed from which every random choice is derived.
+     * @param clickBudget The number of clicks within which a game counts as a success.
+     * @return The summary of the games played.
+     */
+    public SimulationResult run(Strategy strategy, long games, long seed, int clickBudget) {
+        if (games < 0) {
+            throw new IllegalArgumentException("Number of games must not be negative: " + games);
+        }
+        int chunks = (int) ((games + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        SplittableRandom root = new SplittableRandom(seed);
+        SplittableRandom[] streams = new SplittableRandom[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            streams[chunk] = root.split();
+        }
+        return IntStream.range(0, chunks).parallel()
+                .mapToObj(chunk -> {
+                    int size = (int) Math.min(CHUNK_SIZE, games - (long) chunk * CHUNK_SIZE);
+                    return playChunk(strategy, size, streams[chunk], clickBudget);
+                })
+                .reduce(SimulationResult.empty(clickBudget), SimulationResult::combine);
+    }
+
+    /**
+     * Plays a chunk of games on the calling thread.
+     *
+     * @param strategy    The rule used to choose each click.
+     * @param games       The number of games to play.
+     * @param random      The random stream for this chunk.
+     * @param clickBudget The number of clicks within which a game counts as a success.
+     * @return The summary of the chunk.
+     */
+    private SimulationResult playChunk(Strategy strategy, int games, SplittableRandom random, int clickBudget) {
+        SimulatedGame game = new SimulatedGame(animals, placements, layouts, unions);
+        long[] histogram = new long[Constants.BOARD_SIZE * Constants.BOARD_SIZE + 1];
+        for (int i = 0; i < games; i++) {
+            histogram[game.play(random.nextInt(unions.length), strategy, random)]++;
+        }
+        return new SimulationResult(histogram, clickBudget);
+    }
+
+    /**
+     * @return The animals hidden on the board.
+     */
+    public List<Animal> getAnimals() {
+        return animals;
+    }
+
+    /**
+     * @return The number of valid layouts the hidden layout is chosen from.
+     */
+    public int getLayoutCount() {
+        return unions.length;
+    }
+
+    /**
+     * Runs a simulation from the command line and prints its summary.
+     * <p>
+     * Usage: Simulator location strategy games seed animal [animal ...]
+     *
+     * @param args The location, strategy, number of games, seed and names of the animals, as read from data.xml.
+     */
+    public static void main(String[] args) {
+        if (args.length < 5) {
+            System.err.println("Usage: Simulator <location> <strategy> <games> <seed> <animal> [animal ...]");
+            System.err.println("Strategies: " + Arrays.toString(Strategy.values()));
+            System.exit(1);
+        }
+        Map<String, Location> locations = GameDataParser.parseData();
+        Location location = locations.get(args[0]);
+        if (location == null) {
+            throw new IllegalArgumentException("Unknown location: " + args[0]);
+        }
+        Strategy strategy = Strategy.valueOf(args[1].toUpperCase());
+        long games = Long.parseLong(args[2]);
+        long seed = Long.parseLong(args[3]);
+        List<Animal> animals = new ArrayList<>();
+        for (int i = 4; i < args.length; i++) {
+            animals.add(location.getAnimal(args[i]));
+        }
+
+        Simulator simulator = new Simulator(animals);
+        long start = System.nanoTime();
+        SimulationResult result = simulator.run(strategy, games, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(animals + " " + strategy + " layouts=" + simulator.getLayoutCount());
+        System.out.println(result);
+        System.out.printf("%.2fs (%.0f games/s)%n", seconds, games / seconds);
+    }
+}
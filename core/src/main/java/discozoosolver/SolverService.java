@@ -0,0 +1,405 @@
+package discozoosolver;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local HTTP service which plays any number of games against the solver at once. Each game is held in its own
+ * session, and requests for different sessions never wait on each other.
+ * <p>
+ * Endpoints, with parameters taken from the query string or a form encoded body:
+ * - POST /games?location=Farm&amp;animals=Pig,Sheep: starts a game and returns its session id.
+ * - GET /games: the number of sessions held in memory and spilled to snapshots.
+ * - POST /games/{id}/hit?x=1&amp;y=2&amp;animal=Pig: the animal was found at (x, y).
+ * - POST /games/{id}/miss?x=1&amp;y=2: (x, y) was empty.
+ * - GET /games/{id}/recommendation[?optimal=true]: the click most likely to hit, or with optimal the click which
+ * minimises the expected number of clicks.
+ * - GET /games/{id}/probabilities: the probability that each cell holds an animal, in reading order.
+ * - DELETE /games/{id}: ends the game.
+ * Responses are JSON. Invalid requests receive 400, unknown sessions 404 and games whose results contradict each
+ * other 409.
+ * <p>
+ * Sessions are kept in a SessionStore, so idle games are spilled to snapshots once the sessions in memory exceed its
+ * budget.
+ * <p>
+ * Requests are handled on virtual threads when the runtime provides them and on a cached pool of platform threads
+ * otherwise.
+ * <p>
+ * The server writes headers and body separately, so with Nagle's algorithm each small response waits on the client's
+ * delayed acknowledgement, adding around 40ms. Processes which embed the service should be launched with
+ * -Dsun.net.httpserver.nodelay=true, which main sets itself when it has not been given.
+ */
+public class SolverService {
+    private static final String CONTEXT = "/games";
+    private static final String NO_DELAY_PROPERTY = "sun.net.httpserver.nodelay";
+    private static final long DEFAULT_SESSION_BUDGET = 256L * 1024 * 1024;
+
+    private final Map<String, Location> locations;
+    private final SessionStore sessions;
+    private final AtomicLong nextId;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Constructor for SolverService which keeps up to 256MB of sessions in memory.
+     *
+     * @param locations The game data, as returned by GameDataParser.parseData.
+     */
+    public SolverService(Map<String, Location> locations) {
+        this(locations, DEFAULT_SESSION_BUDGET);
+    }
+
+    /**
+     * Constructor for SolverService.
+     *
+     * @param locations     The game data, as returned by GameDataParser.parseData.
+     * @param sessionBudget The estimated memory which sessions may hold before idle ones are spilled, in bytes.
+     */
+    public SolverService(Map<String, Location> locations, long sessionBudget) {
+        this.locations = locations;
+        this.sessions = new SessionStore(locations, sessionBudget);
+        this.nextId = new AtomicLong();
+    }
+
+    /**
+     * Starts listening for requests.
+     *
+     * @param address The address to listen on. A port of 0 chooses any free port.
+     * @throws IOException If the address cannot be bound.
+     */
+    public void start(InetSocketAddress address) throws IOException {
+        server = HttpServer.create(address, 0);
+        executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext(CONTEXT, this::handle);
+        server.start();
+    }
+
+    /**
+     * Stops listening, waiting up to a second for requests in progress to complete.
+     */
+    public void stop() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return The port the service is listening on.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return The sessions of the games in progress.
+     */
+    public SessionStore getSessions() {
+        return sessions;
+    }
+
+    /**
+     * Creates an executor which runs each task on a new virtual thread. Virtual threads are looked up reflectively so
+     * that the service still runs on releases without them, where a cached pool of daemon threads is used instead.
+     *
+     * @return The executor for requests.
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "solver-service");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Routes a request to the session it names and writes the response.
+     *
+     * @param exchange The request.
+     * @throws IOException If the response cannot be written.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        int status = 200;
+        String body;
+        try {
+            body = route(exchange);
+        } catch (NoSuchElementException e) {
+            status = 404;
+            body = error(e);
+        } catch (IllegalStateException e) {
+            status = 409;
+            body = error(e);
+        } catch (UnsupportedOperationException e) {
+            status = 405;
+            body = error(e);
+        } catch (RuntimeException e) {
+            // Malformed numbers and unknown names are the caller's mistake rather than the service's.
+            status = 400;
+            body = error(e);
+        }
+
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * @param exchange The request.
+     * @return The JSON body of the response.
+     * @throws IOException If the request body cannot be read.
+     */
+    private String route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String rest = exchange.getRequestURI().getPath().substring(CONTEXT.length());
+        if (!rest.isEmpty() && !rest.startsWith("/")) {
+            throw new NoSuchElementException("Unknown path: " + exchange.getRequestURI().getPath());
+        }
+        String[] path = rest.split("/");
+        Map<String, String> parameters = readParameters(exchange);
+
+        // The path is either /games, /games/{id} or /games/{id}/{action}, giving a first element which is empty.
+        if (path.length <= 1) {
+            if (method.equals("GET")) {
+                return "{\"resident\":" + sessions.getResidentCount() + ",\"spilled\":" + sessions.getSpilledCount()
+                        + ",\"residentBytes\":" + sessions.getResidentBytes() + "}";
+            }
+            requireMethod(method, "POST");
+            return startGame(parameters);
+        }
+        String id = path[1];
+        if (path.length == 2) {
+            requireMethod(method, "DELETE");
+            if (!sessions.remove(id)) {
+                throw new NoSuchElementException("Unknown session: " + id);
+            }
+            return "{\"session\":\"" + id + "\"}";
+        }
+        if (path.length > 3) {
+            throw new NoSuchElementException("Unknown path: " + exchange.getRequestURI().getPath());
+        }
+
+        // Each session is only ever locked by requests for that session, so games never contend with each other.
+        return sessions.withSession(id, session -> {
+            switch (path[2]) {
+                case "hit":
+                    requireMethod(method, "POST");
+                    session.hit(intParameter(parameters, "x"), intParameter(parameters, "y"),
+                            parameter(parameters, "animal"));
+                    return describeState(id, session);
+                case "miss":
+                    requireMethod(method, "POST");
+                    session.miss(intParameter(parameters, "x"), intParameter(parameters, "y"));
+                    return describeState(id, session);
+                case "recommendation":
+                    requireMethod(method, "GET");
+                    return describeRecommendation(session, Boolean.parseBoolean(parameters.get("optimal")));
+                case "probabilities":
+                    requireMethod(method, "GET");
+                    return describeProbabilities(session.getProbabilities());
+                default:
+                    throw new NoSuchElementException("Unknown path: " + exchange.getRequestURI().getPath());
+            }
+        });
+    }
+
+    /**
+     * @param parameters The parameters of a request to start a game.
+     * @return The JSON body of the response, holding the new session id.
+     */
+    private String startGame(Map<String, String> parameters) {
+        String name = parameter(parameters, "location");
+        Location location = locations.get(name);
+        if (location == null) {
+            throw new IllegalArgumentException("Unknown location: " + name);
+        }
+        // Location.getAnimal reports unknown animals as missing elements, which would otherwise be treated as a 404.
+        GameSession session;
+        try {
+            session = new GameSession(location, Arrays.asList(parameter(parameters, "animals").split(",")));
+        } catch (NoSuchElementException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+        String id = Long.toString(nextId.incrementAndGet(), 36);
+        sessions.put(id, session);
+        return describeState(id, session);
+    }
+
+    /**
+     * @param id      The session id.
+     * @param session The session.
+     * @return The id of the session and whether every animal has been found.
+     */
+    private static String describeState(String id, GameSession session) {
+        return "{\"session\":\"" + id + "\",\"finished\":" + session.isFinished() + "}";
+    }
+
+    /**
+     * @param session The session.
+     * @param optimal Whether to use the expectimax solver rather than the most likely cell.
+     * @return The recommended click, which is null once every animal has been found.
+     */
+    private static String describeRecommendation(GameSession session, boolean optimal) {
+        Block block;
+        String expected = "";
+        if (optimal) {
+            Recommendation recommendation = session.getRecommendation();
+            block = recommendation.getBlock();
+            expected = ",\"expectedClicks\":" + recommendation.getExpectedClicks()
+                    + ",\"exact\":" + recommendation.isExact();
+        } else {
+            block = session.getMostLikelyBlock(session.getProbabilities());
+        }
+        String next = block == null ? "null" : "{\"x\":" + block.x() + ",\"y\":" + block.y() + "}";
+        return "{\"next\":" + next + expected + "}";
+    }
+
+    /**
+     * @param probabilities The probabilities for a session.
+     * @return The number of layouts and the hit probability of each cell.
+     */
+    private static String describeProbabilities(Probabilities probabilities) {
+        StringBuilder builder = new StringBuilder(512);
+        builder.append("{\"layouts\":").append(probabilities.getLayoutCount()).append(",\"cells\":[");
+        for (int cell = 0; cell < Constants.BOARD_SIZE * Constants.BOARD_SIZE; cell++) {
+            if (cell > 0) {
+                builder.append(',');
+            }
+            builder.append(probabilities.getHitProbability(cell));
+        }
+        return builder.append("]}").toString();
+    }
+
+    /**
+     * @param e The reason a request failed.
+     * @return The JSON body describing the failure.
+     */
+    private static String error(Exception e) {
+        String message = String.valueOf(e.getMessage());
+        StringBuilder builder = new StringBuilder(message.length() + 16).append("{\"error\":\"");
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '\\' || c == '"') {
+                builder.append('\\').append(c);
+            } else if (c < 0x20) {
+                // Control characters, such as the line breaks in parse errors, must be escaped in a JSON string.
+                builder.append(String.format("\\u%04x", (int) c));
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.append("\"}").toString();
+    }
+
+    /**
+     * @param method   The method of the request.
+     * @param expected The method the endpoint accepts.
+     */
+    private static void requireMethod(String method, String expected) {
+        if (!method.equals(expected)) {
+            throw new UnsupportedOperationException("Expected " + expected + " but was " + method);
+        }
+    }
+
+    /**
+     * @param parameters The parameters of a request.
+     * @param name       The name of a required parameter.
+     * @return The value of the parameter.
+     */
+    private static String parameter(Map<String, String> parameters, String name) {
+        String value = parameters.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter: " + name);
+        }
+        return value;
+    }
+
+    /**
+     * @param parameters The parameters of a request.
+     * @param name       The name of a required integer parameter.
+     * @return The value of the parameter.
+     */
+    private static int intParameter(Map<String, String> parameters, String name) {
+        String value = parameter(parameters, name);
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " is not a number: " + value, e);
+        }
+    }
+
+    /**
+     * Reads the parameters of a request from its query string and from its body, which is treated as form encoded.
+     *
+     * @param exchange The request.
+     * @return The parameters by name.
+     * @throws IOException If the body cannot be read.
+     */
+    private static Map<String, String> readParameters(HttpExchange exchange) throws IOException {
+        Map<String, String> parameters = new HashMap<>();
+        addParameters(parameters, exchange.getRequestURI().getRawQuery());
+        try (InputStream in = exchange.getRequestBody()) {
+            addParameters(parameters, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        return parameters;
+    }
+
+    /**
+     * @param parameters The parameters to add to.
+     * @param encoded    The form encoded parameters, which may be null or empty.
+     */
+    private static void addParameters(Map<String, String> parameters, String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return;
+        }
+        for (String pair : encoded.trim().split("&")) {
+            int split = pair.indexOf('=');
+            String name = split < 0 ? pair : pair.substring(0, split);
+            String value = split < 0 ? "" : pair.substring(split + 1);
+            parameters.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value,
+                    StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Runs the service on the loopback interface until the process is stopped.
+     * <p>
+     * Usage: SolverService [port [session budget in bytes]]
+     *
+     * @param args The optional port, 8080 by default, and session budget, 256MB by default.
+     * @throws IOException If the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        // The setting is read once, when the first server is created.
+        if (System.getProperty(NO_DELAY_PROPERTY) == null) {
+            System.setProperty(NO_DELAY_PROPERTY, "true");
+        }
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        long budget = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_SESSION_BUDGET;
+        SolverService service = new SolverService(GameDataParser.parseData(), budget);
+        service.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), port));
+        System.out.println("Listening on http://localhost:" + service.getPort() + CONTEXT);
+    }
+}
@@ -0,0 +1,41 @@
+package discozoosolver;
+
+/**
+ * The rules the simulator can use to choose which cell to click next.
+ */
+public enum Strategy {
+    /**
+     * Click a known cell if there is one, otherwise the cell covered by the most candidates, played on a real board in
+     * PriorityMode.COUNT so that every deduction the board makes is taken into account.
+     */
+    COUNT(false),
+    /**
+     * Click the cell most likely to hit across every valid layout, as the board highlights in PriorityMode.EXACT.
+     */
+    EXACT(true),
+    /**
+     * Click the cell whose result is least predictable, measured by the entropy of the miss and per-animal hit
+     * probabilities, preferring likelier hits between equals. Certain cells are left until nothing else is uncertain.
+     */
+    ENTROPY(true),
+    /**
+     * Click any cell which could still hold an animal, chosen uniformly at random.
+     */
+    RANDOM(false);
+
+    private final boolean usesLayouts;
+
+    /**
+     * @param usesLayouts Whether the strategy needs the set of valid layouts rather than just the candidates.
+     */
+    Strategy(boolean usesLayouts) {
+        this.usesLayouts = usesLayouts;
+    }
+
+    /**
+     * @return Whether the strategy needs the set of valid layouts rather than just the candidates.
+     */
+    boolean usesLayouts() {
+        return usesLayouts;
+    }
+}
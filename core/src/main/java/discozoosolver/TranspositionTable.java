@@ -0,0 +1,184 @@
+package discozoosolver;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache of evaluated states keyed by their 64 bit hash.
+ * <p>
+ * The table holds a fixed number of entries arranged in buckets of two. Within a bucket the first slot keeps whichever
+ * entry had the greater weight, which callers set to the amount of work its value saves, and the second slot is always
+ * replaced. Once the table is full, storing a new state evicts an old one, so memory use is fixed up front by the
+ * capacity. Hashes are trusted to identify states, so two states whose hashes collide share an entry; with 64 bit
+ * hashes this is vanishingly rare for the number of states a search visits.
+ * <p>
+ * The table is safe to share between threads without locking. Each entry is an immutable object swapped into its slot
+ * atomically, so a reader always sees a whole entry, and a lost race between two writers only costs a cached value.
+ *
+ * @param <V> The type of the values stored for each state.
+ */
+public class TranspositionTable<V> {
+    private static final int WAYS = 2;
+
+    private final AtomicReferenceArray<Entry<V>> entries;
+    private final int mask;
+    private final AtomicInteger size = new AtomicInteger();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Sole constructor for TranspositionTable which allocates a table holding at least the given number of entries.
+     *
+     * @param capacity The minimum number of entries to hold, which is rounded up to a power of two.
+     */
+    public TranspositionTable(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        int needed = (capacity + WAYS - 1) / WAYS;
+        int buckets = needed == 1 ? 1 : Integer.highestOneBit(needed - 1) << 1;
+        this.mask = buckets - 1;
+        this.entries = new AtomicReferenceArray<>(buckets * WAYS);
+    }
+
+    /**
+     * Looks up the value stored for a state, counting the lookup as a hit or a miss.
+     *
+     * @param key The hash of the state.
+     * @return The stored value, or null if the state is not in the table.
+     */
+    public V get(long key) {
+        int slot = bucketOf(key);
+        for (int i = slot; i < slot + WAYS; i++) {
+            Entry<V> entry = entries.get(i);
+            if (entry != null && entry.key == key) {
+                hits.increment();
+                return entry.value;
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Stores the value for a state, replacing any value already stored for it. If the state's bucket is full an
+     * existing entry is evicted.
+     *
+     * @param key    The hash of the state.
+     * @param weight The amount of work the value saves, used to decide which entries to keep.
+     * @param value  The value to store.
+     */
+    public void put(long key, int weight, V value) {
+        int slot = bucketOf(key);
+        for (int i = slot; i < slot + WAYS; i++) {
+            Entry<V> entry = entries.get(i);
+            if (entry != null && entry.key == key) {
+                entries.set(i, new Entry<>(key, Math.max(entry.weight, weight), value));
+                return;
+            }
+        }
+        Entry<V> entry = new Entry<>(key, weight, value);
+        for (int i = slot; i < slot + WAYS; i++) {
+            if (entries.get(i) == null && entries.compareAndSet(i, null, entry)) {
+                size.incrementAndGet();
+                return;
+            }
+        }
+        evictions.increment();
+        Entry<V> first = entries.get(slot);
+        if (weight >= first.weight) {
+            // The displaced entry is still worth more than whatever is in the always replaced slot.
+            entries.set(slot + 1, first);
+            entries.set(slot, entry);
+        } else {
+            entries.set(slot + 1, entry);
+        }
+    }
+
+    /**
+     * Removes every entry from the table and resets its counters. This should not be called while other threads are
+     * using the table.
+     */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+        size.set(0);
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+    }
+
+    /**
+     * @return The maximum number of entries the table can hold.
+     */
+    public int capacity() {
+        return entries.length();
+    }
+
+    /**
+     * @return The number of entries currently in the table.
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * @return The number of lookups which found a value.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of lookups which found nothing.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of entries which have been evicted to make room for others.
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "TranspositionTable{size=" + size() + "/" + capacity() + ", hits=" + getHits() + ", misses="
+                + getMisses() + ", evictions=" + getEvictions() + "}";
+    }
+
+    /**
+     * @param key The hash of a state.
+     * @return The index of the first slot of the state's bucket.
+     */
+    private int bucketOf(long key) {
+        return (int) ((key ^ (key >>> 32)) & mask) * WAYS;
+    }
+
+    /**
+     * An immutable entry of the table.
+     *
+     * @param <V> The type of the value.
+     */
+    private static class Entry<V> {
+        private final long key;
+        private final int weight;
+        private final V value;
+
+        /**
+         * @param key    The hash of the state.
+         * @param weight The amount of work the value saves.
+         * @param value  The value stored for the state.
+         */
+        Entry(long key, int weight, V value) {
+            this.key = key;
+            this.weight = weight;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package discozoosolver;
+
+/**
+ * Provides the random keys used to hash game states, in the style of Zobrist hashing.
+ * <p>
+ * A game state is described by its location, its set of animals and the observed result of each cell, either a miss
+ * or a hit on a named animal. Each of these facts has its own 64 bit key and the hash of a state is the xor of the
+ * keys of every fact which holds in it. Adding or removing a fact is therefore a single xor, and the hash does not
+ * depend on the order in which the facts were observed. Keys are derived deterministically from names rather than
+ * drawn at random, so hashes are stable between runs.
+ */
+public final class Zobrist {
+    private static final long LOCATION_SEED = 0x4c4f434154494f4eL;
+    private static final long ANIMAL_SEED = 0x414e494d414c5345L;
+    private static final long MISS_SEED = 0x4d495353494e4721L;
+    private static final long HIT_SEED = 0x4849544f4e43454cL;
+
+    private Zobrist() {
+    }
+
+    /**
+     * @param location The name of the location.
+     * @return The key for the board being in the given location.
+     */
+    public static long locationKey(String location) {
+        return location == null ? 0 : mix(LOCATION_SEED ^ hashName(location));
+    }
+
+    /**
+     * @param animal The name of the animal.
+     * @return The key for the given animal being on the board.
+     */
+    public static long animalKey(String animal) {
+        return mix(ANIMAL_SEED ^ hashName(animal));
+    }
+
+    /**
+     * @param cell The index of the cell.
+     * @return The key for the given cell having been confirmed as a miss.
+     */
+    public static long missKey(int cell) {
+        return mix(MISS_SEED + cell);
+    }
+
+    /**
+     * @param cell   The index of the cell.
+     * @param animal The name of the animal.
+     * @return The key for the given cell having been confirmed as a hit on the given animal.
+     */
+    public static long hitKey(int cell, String animal) {
+        return mix((HIT_SEED + cell) ^ mix(hashName(animal)));
+    }
+
+    /**
+     * Hashes a name to 64 bits using FNV-1a.
+     *
+     * @param name The name to hash.
+     * @return The hash of the name.
+     */
+    private static long hashName(String name) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < name.length(); i++) {
+            hash ^= name.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Scrambles the bits of a value so that similar inputs give unrelated keys, using the SplitMix64 finaliser.
+     *
+     * @param value The value to scramble.
+     * @return The scrambled value.
+     */
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
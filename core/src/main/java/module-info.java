@@ -0,0 +1,6 @@
+module DiscoZooSolverCore {
+    exports discozoosolver;
+    requires java.xml;
+    requires java.logging;
+    requires jdk.httpserver;
+}
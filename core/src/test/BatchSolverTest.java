@@ -0,0 +1,99 @@
+import discozoosolver.Animal;
+import discozoosolver.BatchSolver;
+import discozoosolver.Block;
+import discozoosolver.Location;
+import discozoosolver.Pattern;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchSolverTest {
+
+    private static BatchSolver createSolver() {
+        List<Block> position = new ArrayList<>();
+        for (int x = 0; x < 5; x++) {
+            position.add(new Block(x, 0));
+        }
+        Animal row = new Animal("Row", new Pattern(position));
+        return new BatchSolver(Map.of("Test", new Location("Test", List.of(row))), false);
+    }
+
+    @Test
+    void testGame() {
+        BatchSolver solver = createSolver();
+        String start = solver.processLine("game,Test,Row");
+        String miss = solver.processLine("miss,0,0");
+        String hit = solver.processLine("hit,0,1,Row");
+        assertAll(
+                () -> assertTrue(start.startsWith("next,0,0,0.2000,0.2000,"), "Every row is equally likely"),
+                () -> assertEquals(start.split(",").length, 28, "Every cell has a probability"),
+                () -> assertTrue(miss.startsWith("next,0,1,0.0000,0.0000,"), "The top row is ruled out"),
+                () -> assertTrue(hit.startsWith("next,1,1,0.0000,0.0000,0.0000,0.0000,0.0000,1.0000,"),
+                        "The rest of the second row is known")
+        );
+    }
+
+    @Test
+    void testDeducedCell() {
+        BatchSolver solver = createSolver();
+        solver.processLine("game,Test,Row");
+        solver.processLine("miss,0,0");
+        String deduced = solver.processLine("miss,1,0");
+        String next = solver.processLine("hit,0,1,Row");
+        assertAll(
+                () -> assertTrue(deduced.startsWith("next,0,1,"), "A cell deduced to be empty can still be missed"),
+                () -> assertTrue(next.startsWith("next,1,1,"), "The game carries on after the deduced cell")
+        );
+    }
+
+    @Test
+    void testFinishedGame() {
+        BatchSolver solver = createSolver();
+        solver.processLine("game,Test,Row");
+        String last = "";
+        for (int x = 0; x < 5; x++) {
+            last = solver.processLine("hit," + x + ",2,Row");
+        }
+        assertTrue(last.startsWith("next,-,-,"), "No click is recommended once the animal is found");
+    }
+
+    @Test
+    void testErrors() {
+        BatchSolver solver = createSolver();
+        assertAll(
+                () -> assertEquals(solver.processLine("miss,0,0"), "error,No game in progress"),
+                () -> assertEquals(solver.processLine("game,Nowhere,Row"), "error,Unknown location: Nowhere"),
+                () -> assertTrue(solver.processLine("game,Test,Row").startsWith("next,"), "A new game starts"),
+                () -> assertEquals(solver.processLine("miss,5,0"), "error,Cell is off the board: 5,0"),
+                () -> assertEquals(solver.processLine("miss,0,0"), "error,No game in progress"),
+                () -> assertTrue(solver.processLine("game,Test,Row").startsWith("next,"), "A new game starts"),
+                () -> assertEquals(solver.processLine("hit,0,0,Cow"), "error,Cow is not part of this game"),
+                () -> assertTrue(solver.processLine("game,Test,Row").startsWith("next,"), "A new game starts"),
+                () -> assertTrue(solver.processLine("miss,0,0").startsWith("next,"), "A miss is applied"),
+                () -> assertEquals(solver.processLine("miss,0,0"), "error,Cell has already been revealed: 0,0")
+        );
+    }
+
+    @Test
+    void testProcess() throws IOException {
+        StringWriter out = new StringWriter();
+        createSolver().process(new BufferedReader(new StringReader("# comment\ngame,Test,Row\n\nmiss,0,0\n")), out);
+        String[] lines = out.toString().split("\n", -1);
+        assertAll(
+                () -> assertEquals(lines.length, 5, "There is one line of output per line of input"),
+                () -> assertEquals(lines[0], "# comment", "Comments are copied"),
+                () -> assertEquals(lines[2], "", "Blank lines are copied"),
+                () -> assertTrue(lines[3].startsWith("next,0,1,"), "The miss is applied")
+        );
+    }
+}
@@ -38,6 +38,14 @@ class BlockTest {
         );
     }
 
+    @Test
+    void testIndexAndMask() {
+        assertAll(
+                () -> assertEquals(testBlock1.index(), 11, "Block.index returns the wrong value"),
+                () -> assertEquals(testBlock1.toMask(), 1 << 11, "Block.toMask returns the wrong value")
+        );
+    }
+
     @Test
     void testToString() {
         assertAll(
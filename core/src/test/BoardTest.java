@@ -0,0 +1,403 @@
+import discozoosolver.Animal;
+import discozoosolver.Block;
+import discozoosolver.Board;
+import discozoosolver.BoardListener;
+import discozoosolver.BoardSnapshot;
+import discozoosolver.Cell;
+import discozoosolver.Pattern;
+import discozoosolver.PriorityMode;
+import discozoosolver.Probabilities;
+import discozoosolver.Recommendation;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoardTest {
+
+    private static Board board;
+
+    @BeforeAll
+    static void createBoard() {
+        board = new Board();
+    }
+
+    @BeforeEach
+    void resetBoard() {
+        board.resetBoard();
+        board.setPriorityMode(PriorityMode.COUNT);
+    }
+
+    @Test
+    void testLocation() {
+        assertNull(board.getLocation(), "Location shouldn't be set upon creation");
+        board.setLocation("City");
+        assertEquals(board.getLocation(), "City", "Board.setLocation should update location");
+    }
+
+    @Test
+    void testNumberOfCells() {
+        assertEquals(board.getCells().size(), 25, "The size of the board should be 5x5");
+    }
+
+    @Test
+    void testSingleCandidate() {
+        assertEquals(board.getCandidates().size(), 0, "The board should be initialised with 0 candidates");
+
+        List<Block> position = new ArrayList<>();
+        position.add(new Block(0, 0));
+        position.add(new Block(1, 0));
+        position.add(new Block(2, 0));
+        position.add(new Block(3, 0));
+        Animal sheep = new Animal("Sheep", new Pattern(position));
+        board.addAnimal(sheep);
+
+        board.generateCandidates();
+        assertEquals(board.getCandidates().size(), 10, "10 candidates should be generated");
+        for (int i = 0; i < 5; i++) {
+            for (int j = 0; j < 5; j++) {
+                if (i == 0 || i == 4) {
+                    assertFalse(board.getCells().get(j * 5 + i).getPriority(), "Cells in the center three columns should be prioritised");
+                } else {
+                    assertTrue(board.getCells().get(j * 5 + i).getPriority(), "Cells in the center three columns should be prioritised");
+                }
+            }
+        }
+
+        board.confirmMiss(new Block(2, 0));
+        assertEquals(board.getCandidates().size(), 8, "A miss should eliminate two candidates");
+        for (int i = 0; i < 5; i++) {
+            assertTrue(board.getCells().get(i).getFinalised(), "Cell should be finalised by the confirmed miss");
+            assertFalse(board.getCells().get(i).getKnown(), "Cell's which are finalised should not be known");
+            assertFalse(board.getCells().get(i).getPriority(), "Cell's which are finalised should not be prioritised");
+        }
+
+        board.confirmHit(new Block(1, 1), "Sheep");
+        assertAll(
+                () -> assertEquals(board.getCandidates().size(), 2, "Two candidates should remain after confirming this hit"),
+                () -> assertTrue(board.getCells().get(6).getFinalised(), "Cell should be finalised after being confirmed"),
+                () -> assertTrue(board.getCells().get(7).getKnown(), "Both candidates contain this cell so it should be known"),
+                () -> assertTrue(board.getCells().get(8).getKnown(), "Both candidates contain this cell so it should be known")
+        );
+
+        board.confirmHit(new Block(0, 1), "Sheep");
+        assertEquals(board.getCandidates().size(), 1, "Only one candidate should remain");
+        assertTrue(board.getCells().get(5).getFinalised(), "Cell should be finalised after being confirmed");
+    }
+
+    @Test
+    void testMultipleCandidates() {
+        assertEquals(board.getCandidates().size(), 0, "The board should be initialised with 0 candidates");
+
+        setUpMultipleCandidateTest();
+        assertAll(
+                () -> assertTrue(board.getCells().get(4).getFinalised(), "Cell is empty and should be marked as finalised"),
+                () -> assertTrue(board.getCells().get(12).getPriority(), "Cell should be marked a priority")
+        );
+
+        board.confirmHit(new Block(2, 2), "Eagle");
+        assertAll(
+                () -> assertTrue(board.getCells().get(12).getFinalised(), "Cell should be finalised after being confirmed"),
+                () -> assertFalse(board.getCells().get(12).getKnown(), "Cell should be not be known after being confirmed"),
+                () -> assertFalse(board.getCells().get(12).getPriority(), "Cell should not be a priority after being confirmed"),
+                () -> assertTrue(board.getCells().get(7).getPriority(), "Cell should be marked a priority"),
+                () -> assertTrue(board.getCells().get(17).getPriority(), "Cell should be marked a priority"),
+                () -> assertTrue(board.getCells().get(19).getFinalised(), "Cell is empty and should be marked as finalised")
+        );
+
+        board.confirmHit(new Block(2, 3), "Goat");
+        assertAll(
+                () -> assertTrue(board.getCells().get(17).getFinalised(), "Cell should be marked finalised after being confirmed"),
+                () -> assertTrue(board.getCells().get(5).getFinalised(), "Cell is empty and should be marked finalised"),
+                () -> assertTrue(board.getCells().get(20).getFinalised(), "Cell is empty and should be marked finalised"),
+                () -> assertTrue(board.getCells().get(21).getFinalised(), "Cell is empty and should be marked finalised"),
+                () -> assertTrue(board.getCells().get(7).getPriority(), "Cell should be marked a priority")
+        );
+
+        board.confirmHit(new Block(2, 1), "Coyote");
+        assertAll(
+                () -> assertTrue(board.getCells().get(7).getFinalised(), "Cell should be marked finalised after being confirmed"),
+                () -> assertTrue(board.getCells().get(1).getKnown(), "Only one candidate remains for Eagle, cell should be known"),
+                () -> assertTrue(board.getCells().get(6).getKnown(), "Only one candidate remains for Eagle, cell should be known"),
+                () -> assertTrue(board.getCells().get(8).getKnown(), "Only one candidate remains for Coyote, cell should be known"),
+                () -> assertTrue(board.getCells().get(14).getKnown(), "Only one candidate remains for Coyote, cell should be known")
+        );
+    }
+
+    @Test
+    void testExactPriorities() {
+        setUpMultipleCandidateTest();
+        Probabilities probabilities = board.getProbabilities();
+        assertAll(
+                () -> assertTrue(probabilities.getLayoutCount() > 0, "There should be valid layouts"),
+                () -> assertEquals(probabilities.getHitProbability(4), 0, 1e-9, "Empty cell should have no chance of a hit")
+        );
+
+        board.setPriorityMode(PriorityMode.EXACT);
+        board.confirmMiss(new Block(0, 0));
+        Probabilities updated = board.getProbabilities();
+        for (int i = 0; i < 25; i++) {
+            if (board.getCells().get(i).getPriority()) {
+                for (int j = 0; j < 25; j++) {
+                    if (!(board.getCells().get(j).getFinalised() || board.getCells().get(j).getKnown())) {
+                        assertTrue(updated.getHitCount(i) >= updated.getHitCount(j), "Priority cells should be the most likely hits");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void testRecommendation() {
+        setUpMultipleCandidateTest();
+        board.confirmHit(new Block(2, 2), "Eagle");
+        board.confirmHit(new Block(2, 3), "Goat");
+        Recommendation recommendation = board.getRecommendation();
+        Cell cell = board.getCells().get(recommendation.getBlock().index());
+        assertAll(
+                () -> assertFalse(cell.getFinalised(), "The recommended cell should not already be finalised"),
+                () -> assertTrue(recommendation.getExpectedClicks() >= 1, "At least one click should remain")
+        );
+    }
+
+    @Test
+    void testStateHash() {
+        setUpMultipleCandidateTest();
+        long initial = board.getStateHash();
+        board.confirmMiss(new Block(4, 4));
+        board.confirmHit(new Block(2, 2), "Eagle");
+        long forwards = board.getStateHash();
+
+        resetBoard();
+        setUpMultipleCandidateTest();
+        assertEquals(board.getStateHash(), initial, "The same setup should give the same hash");
+        board.confirmHit(new Block(2, 2), "Eagle");
+        long partial = board.getStateHash();
+        board.confirmMiss(new Block(4, 4));
+        assertAll(
+                () -> assertEquals(board.getStateHash(), forwards, "The order of observations should not matter"),
+                () -> assertNotEquals(partial, initial, "A hit should change the hash"),
+                () -> assertNotEquals(partial, forwards, "A miss should change the hash")
+        );
+    }
+
+    @Test
+    void testListener() {
+        List<Board> changes = new ArrayList<>();
+        BoardListener listener = changes::add;
+        board.addListener(listener);
+        setUpMultipleCandidateTest();
+        board.confirmMiss(new Block(4, 4));
+        board.removeListener(listener);
+        board.confirmMiss(new Block(4, 3));
+        assertEquals(changes.size(), 2, "Listeners should be notified of new games and clicks until removed");
+    }
+
+    @Test
+    void testSnapshot() {
+        setUpMultipleCandidateTest();
+        BoardSnapshot before = board.snapshot();
+        Recommendation recommendation = board.getRecommendation();
+        board.confirmMiss(new Block(4, 4));
+        BoardSnapshot after = board.snapshot();
+        assertAll(
+                () -> assertFalse(before.isFinalised(24), "A snapshot should not see later clicks"),
+                () -> assertTrue(after.isFinalised(24), "A snapshot should see earlier clicks"),
+                () -> assertTrue(after.isRevealed(24), "Clicked cells should be revealed"),
+                () -> assertEquals(after.getStateHash(), board.getStateHash(), "The snapshot should share the board's hash"),
+                () -> assertEquals(before.getChangedCells(before), 0, "A snapshot should not differ from itself"),
+                () -> assertNotEquals(after.getChangedCells(before) & (1 << 24), 0, "The clicked cell should differ"),
+                () -> assertEquals(after.getChangedCells(null), (1 << 25) - 1, "Every cell differs from no snapshot"),
+                () -> assertEquals(before.getRecommendation().getBlock(), recommendation.getBlock(),
+                        "The snapshot should recommend the same click as the board did"),
+                () -> assertThrows(UnsupportedOperationException.class, () -> after.getAnimals(0).add("Goat"),
+                        "A snapshot's animals should not be modifiable")
+        );
+    }
+
+    @Test
+    void testSnapshotOfEarlierGame() {
+        setUpMultipleCandidateTest();
+        BoardSnapshot earlier = board.snapshot();
+        List<String> earlierAnimals = earlier.getAnimals(0);
+        board.resetBoard();
+        board.addAnimal(new Animal("Cow", new Pattern(List.of(new Block(0, 0)))));
+        board.generateCandidates();
+        BoardSnapshot later = board.snapshot();
+        assertAll(
+                () -> assertEquals(earlier.getAnimals(0), earlierAnimals, "A new game should not change old snapshots"),
+                () -> assertEquals(later.getAnimals(0), List.of("Cow"), "The new game's animals should be seen"),
+                () -> assertEquals(later.getChangedCells(earlier), (1 << 25) - 1,
+                        "Every cell should differ from a snapshot of another game")
+        );
+    }
+
+    @Test
+    void testUndoRedo() {
+        setUpMultipleCandidateTest();
+        BoardSnapshot generated = board.snapshot();
+        int generatedCount = board.getCandidates().size();
+        board.confirmMiss(new Block(4, 4));
+        BoardSnapshot miss = board.snapshot();
+        board.confirmHit(new Block(2, 2), "Eagle");
+        BoardSnapshot hit = board.snapshot();
+
+        board.undo();
+        board.undo();
+        assertAll(
+                () -> assertSame(board.snapshot(), generated, "Undoing should return to the recorded state"),
+                () -> assertEquals(board.getCandidates().size(), generatedCount, "Undoing should restore candidates"),
+                () -> assertFalse(board.getCells().get(24).getFinalised(), "Undoing should restore the cells"),
+                () -> assertFalse(board.canUndo(), "The generated game is the first step"),
+                () -> assertTrue(board.canRedo(), "Undone steps can be redone")
+        );
+
+        board.goToStep(2);
+        assertAll(
+                () -> assertSame(board.snapshot(), hit, "Any step can be returned to"),
+                () -> assertEquals(board.getStateHash(), hit.getStateHash(), "The hash should be restored"),
+                () -> assertFalse(board.canRedo(), "The last step has nothing to redo")
+        );
+
+        board.undo();
+        board.confirmMiss(new Block(0, 4));
+        assertAll(
+                () -> assertEquals(board.getStep(), 2, "The new step should follow the current one"),
+                () -> assertEquals(board.getStepCount(), 3, "Taking a step should discard undone steps"),
+                () -> assertTrue(board.getCells().get(20).getFinalised(), "The new step should be applied"),
+                () -> assertFalse(board.getCells().get(12).getFinalised(), "The undone step should not be applied"),
+                () -> assertEquals(board.snapshot().getAnimals(0), miss.getAnimals(0),
+                        "Cells the undone step changed should be as they were before it")
+        );
+    }
+
+    @Test
+    void testRepeatedClick() {
+        board.addAnimal(new Animal("Bear", new Pattern(List.of(new Block(0, 0), new Block(1, 0)))));
+        board.generateCandidates();
+        board.confirmMiss(new Block(2, 2));
+        long hash = board.getStateHash();
+        int step = board.getStep();
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> board.confirmMiss(new Block(2, 2)),
+                        "A cell should not be missed twice"),
+                () -> assertThrows(IllegalArgumentException.class, () -> board.confirmHit(new Block(2, 2), "Bear"),
+                        "A missed cell should not then be hit"),
+                () -> assertEquals(board.getStateHash(), hash, "Rejected clicks should leave the hash alone"),
+                () -> assertEquals(board.getStep(), step, "Rejected clicks should not be recorded")
+        );
+    }
+
+    @Test
+    void testFailedStep() {
+        board.addAnimal(new Animal("Bear", new Pattern(List.of(new Block(0, 0), new Block(1, 0)))));
+        board.generateCandidates();
+        board.confirmHit(new Block(2, 2), "Bear");
+        board.confirmMiss(new Block(1, 2));
+        BoardSnapshot before = board.snapshot();
+        assertThrows(IndexOutOfBoundsException.class, () -> board.confirmMiss(new Block(3, 2)),
+                "A result which no layout agrees with should be rejected");
+        assertAll(
+                () -> assertSame(board.snapshot(), before, "A rejected step should not be recorded"),
+                () -> assertEquals(board.getCandidates().size(), before.getCandidateCount(),
+                        "A rejected step should be rolled back"),
+                () -> assertFalse(board.getCells().get(13).getFinalised(), "A rejected step should not reveal its cell")
+        );
+    }
+
+    @Test
+    void testPropagation() {
+        Animal row = new Animal("Row", new Pattern(List.of(new Block(0, 0), new Block(1, 0), new Block(2, 0),
+                new Block(3, 0), new Block(4, 0))));
+        Animal bar = new Animal("Bar", new Pattern(List.of(new Block(0, 0), new Block(0, 1))));
+        BoardSnapshot rowFirst = playPropagationGame(row, bar);
+        BoardSnapshot barFirst = playPropagationGame(bar, row);
+        assertAll(
+                () -> assertTrue(rowFirst.isKnown(22), "The only row left should be known"),
+                () -> assertTrue(rowFirst.isKnown(14), "Knowing the row should leave the bar only one candidate"),
+                () -> assertEquals(rowFirst.getCandidateCount(), 2, "Each animal should have one candidate left"),
+                () -> assertEquals(barFirst.getCandidateCount(), rowFirst.getCandidateCount(),
+                        "The order of the animals should not change the candidates left"),
+                () -> {
+                    for (int cell = 0; cell < 25; cell++) {
+                        assertEquals(barFirst.isKnown(cell), rowFirst.isKnown(cell),
+                                "The order of the animals should not change the known cells");
+                    }
+                }
+        );
+    }
+
+    @Test
+    void testCompatibilityPruning() {
+        board.addAnimal(new Animal("Row", new Pattern(List.of(new Block(0, 0), new Block(1, 0), new Block(2, 0),
+                new Block(3, 0), new Block(4, 0)))));
+        board.addAnimal(new Animal("Pole", new Pattern(List.of(new Block(0, 0), new Block(0, 1), new Block(0, 2),
+                new Block(0, 3)))));
+        board.generateCandidates();
+        // Every pole covers the middle three rows, so the row can only be at the top or the bottom.
+        assertAll(
+                () -> assertEquals(board.getCandidateCount(0), 2, "Rows which leave no room for the pole should be removed"),
+                () -> assertEquals(board.getCandidateCount(1), 10, "Every pole fits alongside some row"),
+                () -> assertEquals(board.getCells().get(12).getCount(), 2, "Only the poles should occupy the middle"),
+                () -> assertEquals(board.getProbabilities().getLayoutCount(), 10L,
+                        "Removing candidates which fit no layout should leave every layout")
+        );
+    }
+
+    /**
+     * Plays a game in which the row is only found through misses, which in turn settles the bar.
+     *
+     * @param first  The animal to add first.
+     * @param second The animal to add second.
+     * @return The snapshot of the board at the end of the game.
+     */
+    private BoardSnapshot playPropagationGame(Animal first, Animal second) {
+        board.resetBoard();
+        board.addAnimal(first);
+        board.addAnimal(second);
+        board.generateCandidates();
+        board.confirmHit(new Block(4, 3), "Bar");
+        board.confirmMiss(new Block(0, 0));
+        board.confirmMiss(new Block(0, 1));
+        board.confirmMiss(new Block(0, 2));
+        return board.snapshot();
+    }
+
+    private void setUpMultipleCandidateTest() {
+        List<Block> position = new ArrayList<>();
+        position.add(new Block(0, 0));
+        position.add(new Block(0, 1));
+        position.add(new Block(1, 1));
+        position.add(new Block(2, 1));
+        Animal animal = new Animal("Goat", new Pattern(position));
+        board.addAnimal(animal);
+
+
+        position = new ArrayList<>();
+        position.add(new Block(0, 0));
+        position.add(new Block(0, 1));
+        position.add(new Block(1, 2));
+        animal = new Animal("Eagle", new Pattern(position));
+        board.addAnimal(animal);
+
+
+        position = new ArrayList<>();
+        position.add(new Block(0, 0));
+        position.add(new Block(1, 0));
+        position.add(new Block(2, 1));
+        animal = new Animal("Coyote", new Pattern(position));
+        board.addAnimal(animal);
+        board.generateCandidates();
+    }
+}
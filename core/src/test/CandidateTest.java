@@ -10,6 +10,8 @@ import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertAll;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class CandidateTest {
 
@@ -41,6 +43,16 @@ class CandidateTest {
         );
     }
 
+    @Test
+    void testMask() {
+        int expected = (1 << 0) | (1 << 6) | (1 << 11);
+        assertAll(
+                () -> assertEquals(candidate.getMask(), expected, "Candidate.getMask returns incorrect value"),
+                () -> assertTrue(candidate.contains(new Block(1, 2)), "Candidate should contain block (1, 2)"),
+                () -> assertFalse(candidate.contains(new Block(2, 1)), "Candidate should not contain block (2, 1)")
+        );
+    }
+
     @Test
     void testToString() {
         assertEquals(candidate.toString(), "Cockatoo: [(0, 0), (1, 1), (1, 2)]");
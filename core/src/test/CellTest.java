@@ -2,7 +2,6 @@ import discozoosolver.Cell;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import ui.SolverApp;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -20,8 +19,7 @@ class CellTest {
 
     @BeforeAll
     static void createTestCell() {
-        SolverApp solver = new SolverApp();
-        cell = new Cell(x, y, solver);
+        cell = new Cell(x, y);
     }
 
     @BeforeEach
@@ -70,6 +68,10 @@ class CellTest {
         cell.incrementCount();
         assertEquals(cell.getCount(), 1, "Cell.incrementCount should increase count by 1");
 
+        cell.incrementCount();
+        cell.decrementCount();
+        assertEquals(cell.getCount(), 1, "Cell.decrementCount should decrease count by 1");
+
         cell.clearCount();
         assertEquals(cell.getCount(), 0, "Cell.clearCount should reset count to 0");
     }
@@ -89,6 +91,10 @@ class CellTest {
         assertEquals(cell.getAnimals().size(), 2, "Cell.addAnimal should add 1 animal");
         assertEquals(cell.getAnimals(), animals, "Cell.addAnimal is not adding animals correctly");
 
+        cell.removeAnimal("Penguin");
+        animals.remove("Penguin");
+        assertEquals(cell.getAnimals(), animals, "Cell.removeAnimal is not removing animals correctly");
+
         cell.clearAnimals();
         assertEquals(cell.getAnimals().size(), 0, "Cell.clearAnimals should cause Cell.animals to be empty");
     }
@@ -0,0 +1,117 @@
+import discozoosolver.Block;
+import discozoosolver.ExpectimaxSolver;
+import discozoosolver.Recommendation;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExpectimaxSolverTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    void testSingleCellAnimal() {
+        int[][] placements = {{0b1, 0b10, 0b100}};
+        Recommendation recommendation = new ExpectimaxSolver(placements).recommend(0);
+        assertAll(
+                () -> assertNotNull(recommendation.getBlock(), "A click should be recommended"),
+                () -> assertEquals(recommendation.getExpectedClicks(), 2, DELTA, "On average two cells are searched")
+        );
+    }
+
+    @Test
+    void testRowAnimal() {
+        // An animal filling a whole row is found by searching down a column, then its other four cells are clicked.
+        int[][] placements = {{0b11111, 0b11111 << 5, 0b11111 << 10, 0b11111 << 15, 0b11111 << 20}};
+        Recommendation recommendation = new ExpectimaxSolver(placements).recommend(0);
+        assertEquals(recommendation.getExpectedClicks(), 7, DELTA, "Expected 5 hits and 2 misses on average");
+    }
+
+    @Test
+    void testMidGame() {
+        // With the top two rows revealed as misses only three placements remain.
+        int[][] placements = {{0b11111 << 10, 0b11111 << 15, 0b11111 << 20}};
+        Recommendation recommendation = new ExpectimaxSolver(placements).recommend(0b11111_11111);
+        assertAll(
+                () -> assertEquals(recommendation.getExpectedClicks(), 6, DELTA, "Expected 5 hits and 1 miss on average"),
+                () -> assertEquals(recommendation.getBlock().y() >= 2, true, "The click should be in an unrevealed row")
+        );
+    }
+
+    @Test
+    void testParallelMatchesSequential() {
+        // Two 2x1 animals on the top two rows of the board.
+        int[][] placements = {new int[8], new int[8]};
+        for (int i = 0; i < 4; i++) {
+            placements[0][i] = 0b11 << i;
+            placements[0][i + 4] = 0b11 << (i + 5);
+            placements[1][i] = 0b11 << i;
+            placements[1][i + 4] = 0b11 << (i + 5);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Recommendation parallel = new ExpectimaxSolver(placements, 1 << 12, pool).recommend(0);
+            Recommendation sequential = new ExpectimaxSolver(placements, 1 << 12, null).recommend(0);
+            assertAll(
+                    () -> assertEquals(parallel.getBlock(), sequential.getBlock(), "The same click should be chosen"),
+                    () -> assertEquals(parallel.getExpectedClicks(), sequential.getExpectedClicks(), DELTA,
+                            "The same value should be found")
+            );
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testKnownLayout() {
+        int[][] placements = {{0b111}};
+        Recommendation recommendation = new ExpectimaxSolver(placements).recommend(0b11);
+        assertAll(
+                () -> assertEquals(recommendation.getBlock(), new Block(2, 0), "The last unrevealed cell should be clicked"),
+                () -> assertEquals(recommendation.getExpectedClicks(), 1, DELTA, "Only one click should remain")
+        );
+    }
+
+    @Test
+    void testFinished() {
+        int[][] placements = {{0b111}};
+        Recommendation recommendation = new ExpectimaxSolver(placements).recommend(0b111);
+        assertAll(
+                () -> assertNull(recommendation.getBlock(), "No click should be recommended once finished"),
+                () -> assertEquals(recommendation.getExpectedClicks(), 0, DELTA, "No clicks should remain")
+        );
+    }
+
+    @Test
+    void testCancellation() {
+        int[][] placements = {{0b11111, 0b11111 << 5, 0b11111 << 10, 0b11111 << 15, 0b11111 << 20}};
+        ExpectimaxSolver solver = new ExpectimaxSolver(placements);
+        solver.setCancellation(() -> true);
+        assertThrows(CancellationException.class, () -> solver.recommend(0), "A cancelled search should stop");
+        solver.setCancellation(null);
+        assertEquals(solver.recommend(0).getExpectedClicks(), 7, DELTA, "Searches should run once not cancelled");
+    }
+
+    @Test
+    void testNodeLimit() {
+        // The middle cell of the top row is covered by two of the three placements.
+        int[][] placements = {{0b11, 0b110, 0b11 << 5}};
+        ExpectimaxSolver solver = new ExpectimaxSolver(placements);
+        solver.setNodeLimit(1);
+        Recommendation limited = solver.recommend(0);
+        solver.setNodeLimit(Long.MAX_VALUE);
+        Recommendation exact = solver.recommend(0);
+        assertAll(
+                () -> assertEquals(limited.getBlock(), new Block(1, 0), "The most likely cell should be recommended"),
+                () -> assertEquals(limited.isExact(), false, "A search out of budget should not be exact"),
+                () -> assertEquals(exact.isExact(), true, "A search within budget should be exact")
+        );
+    }
+}
@@ -0,0 +1,58 @@
+import discozoosolver.Animal;
+import discozoosolver.Block;
+import discozoosolver.GameCatalog;
+import discozoosolver.Location;
+import discozoosolver.Pattern;
+import discozoosolver.PlacementTable;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GameCatalogTest {
+
+    private static Map<String, Location> createLocations() {
+        Pattern corner = new Pattern(List.of(new Block(0, 0), new Block(1, 0), new Block(0, 1)));
+        Pattern gap = new Pattern(List.of(new Block(1, 0), new Block(0, 2)));
+        Map<String, Location> locations = new LinkedHashMap<>();
+        locations.put("First", new Location("First", List.of(new Animal("Corner", corner), new Animal("Gap", gap))));
+        locations.put("Second", new Location("Second", List.of(new Animal("Other Corner", corner))));
+        return locations;
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Map<String, Location> locations = createLocations();
+        byte[] bytes = GameCatalog.write(locations);
+        Map<String, Location> read = GameCatalog.read(bytes);
+        Animal gap = read.get("First").getAnimals().get(1);
+        PlacementTable table = PlacementTable.forPattern(gap.getPattern());
+        PlacementTable expected = PlacementTable.forPattern(locations.get("First").getAnimals().get(1).getPattern());
+        assertAll(
+                () -> assertEquals(List.copyOf(read.keySet()), List.of("First", "Second"), "Locations keep their order"),
+                () -> assertEquals(read.get("Second").getAnimals().get(0).getName(), "Other Corner",
+                        "Animals keep their names"),
+                () -> assertEquals(gap.getPattern().getBlocks(), List.of(new Block(1, 0), new Block(0, 2)),
+                        "Patterns keep their blocks in order"),
+                () -> assertSame(read.get("Second").getAnimals().get(0).getPattern(),
+                        read.get("First").getAnimals().get(0).getPattern(), "Animals of the same shape share a pattern"),
+                () -> assertSame(table, expected, "Placements are shared with the existing table for the shape"),
+                () -> assertEquals(GameCatalog.write(read).length, bytes.length, "The catalog is rewritten identically")
+        );
+    }
+
+    @Test
+    void testInvalidCatalog() {
+        assertAll(
+                () -> assertThrows(IOException.class, () -> GameCatalog.read(new byte[]{1, 2, 3, 4, 5, 6})),
+                () -> assertThrows(IOException.class, () -> GameCatalog.read(new byte[]{0x44, 0x5a}))
+        );
+    }
+}
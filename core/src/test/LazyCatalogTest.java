@@ -0,0 +1,128 @@
+import discozoosolver.Block;
+import discozoosolver.CatalogException;
+import discozoosolver.LazyCatalog;
+import discozoosolver.Location;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyCatalogTest {
+    private static final String CATALOG = String.join("\n",
+            "<DATA>",
+            "  <LOCATION>",
+            "    <NAME>Field</NAME>",
+            "    <ANIMALS>",
+            "      <ANIMAL><NAME>Cow</NAME><PATTERN>(0 0) (1 0) (2 0)</PATTERN></ANIMAL>",
+            "    </ANIMALS>",
+            "  </LOCATION>",
+            "  <LOCATION>",
+            "    <NAME>Lake</NAME>",
+            "    <ANIMALS>",
+            "      <ANIMAL>",
+            "        <NAME>Duck</NAME>",
+            "        <PATTERN>(1 0) (0 1)</PATTERN>",
+            "      </ANIMAL>",
+            "      <ANIMAL><NAME>Frog</NAME><PATTERN> (0 0)</PATTERN></ANIMAL>",
+            "    </ANIMALS>",
+            "  </LOCATION>",
+            "</DATA>");
+
+    private static LazyCatalog read(String text) throws IOException {
+        return LazyCatalog.read(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), "test.xml");
+    }
+
+    private static CatalogException readInvalid(String text) {
+        return assertThrows(CatalogException.class, () -> read(text));
+    }
+
+    @Test
+    void testLazyLocations() throws IOException {
+        LazyCatalog catalog = read(CATALOG);
+        int before = catalog.getMaterialisedCount();
+        Location lake = catalog.get("Lake");
+        assertAll(
+                () -> assertEquals(List.copyOf(catalog.keySet()), List.of("Field", "Lake"), "Locations are in order"),
+                () -> assertEquals(before, 0, "Nothing is built when the catalog is opened"),
+                () -> assertEquals(catalog.getMaterialisedCount(), 1, "Only the requested location is built"),
+                () -> assertEquals(lake.getAnimals().size(), 2, "Every animal is read"),
+                () -> assertEquals(lake.getAnimal("Duck").getPattern().getBlocks(),
+                        List.of(new Block(1, 0), new Block(0, 1)), "Patterns are read in order"),
+                () -> assertSame(catalog.get("Lake"), lake, "Locations are only built once"),
+                () -> assertNull(catalog.get("Desert"), "Unknown locations are absent"),
+                () -> assertEquals(catalog.values().size(), 2, "Every location can be listed")
+        );
+    }
+
+    @Test
+    void testFile() throws IOException {
+        Path file = Files.createTempFile("catalog", ".xml");
+        file.toFile().deleteOnExit();
+        Files.write(file, CATALOG.getBytes(StandardCharsets.UTF_8));
+        LazyCatalog catalog = LazyCatalog.open(file);
+        assertAll(
+                () -> assertEquals(catalog.get("Lake").getAnimal("Frog").getPattern().getSize(), 1,
+                        "A later location is read from its position in the file"),
+                () -> assertEquals(catalog.get("Field").getAnimal("Cow").getPattern().getWidth(), 3,
+                        "An earlier location is read from its position in the file")
+        );
+    }
+
+    @Test
+    void testFileOffsets() throws IOException {
+        // Names of two, three and four bytes come before the last location, whose byte offset must allow for them.
+        String text = CATALOG.replace("Field", "Pr\u00e9 \u2600 \ud83d\udc04").replace("Cow", "Vache \ud83d\udc04");
+        Path file = Files.createTempFile("catalog", ".xml");
+        file.toFile().deleteOnExit();
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        LazyCatalog catalog = LazyCatalog.open(file);
+        assertAll(
+                () -> assertEquals(catalog.get("Lake").getAnimal("Duck").getPattern().getHeight(), 2,
+                        "A location after multi-byte text is read from its position in the file"),
+                () -> assertEquals(catalog.get("Pr\u00e9 \u2600 \ud83d\udc04").getAnimal("Vache \ud83d\udc04")
+                        .getPattern().getWidth(), 3, "Multi-byte names are read back whole")
+        );
+    }
+
+    @Test
+    void testMalformedPatterns() {
+        CatalogException unclosed = readInvalid(CATALOG.replace("(1 0) (0 1)", "(1 0) (0 1"));
+        CatalogException offBoard = readInvalid(CATALOG.replace("(1 0) (0 1)", "(1 0) (0 5)"));
+        CatalogException offset = readInvalid(CATALOG.replace("(0 0) (1 0) (2 0)", "(1 1) (2 1)"));
+        CatalogException repeated = readInvalid(CATALOG.replace("(0 0) (1 0) (2 0)", "(0 0) (0 0)"));
+        assertAll(
+                () -> assertEquals(unclosed.getLineNumber(), 13, "The pattern's line is reported"),
+                () -> assertTrue(unclosed.getMessage().startsWith("test.xml:13: Malformed pattern"),
+                        "The message names the catalog and line"),
+                () -> assertTrue(offBoard.getMessage().contains("off the board"), "Coordinates must be on the board"),
+                () -> assertEquals(offset.getLineNumber(), 5, "Patterns must start at the origin"),
+                () -> assertTrue(repeated.getMessage().contains("repeats"), "Blocks must be distinct")
+        );
+    }
+
+    @Test
+    void testInvalidCatalogs() {
+        CatalogException unclosed = readInvalid(CATALOG.replace("</ANIMALS>\n  </LOCATION>\n  <LOCATION>",
+                "</ANIMALS>\n  <LOCATION>"));
+        CatalogException duplicate = readInvalid(CATALOG.replace("<NAME>Lake</NAME>", "<NAME>Field</NAME>"));
+        CatalogException unnamed = readInvalid(CATALOG.replace("<NAME>Duck</NAME>", ""));
+        CatalogException unexpected = readInvalid(CATALOG.replace("<NAME>Frog</NAME>", "<SIZE>1</SIZE>"));
+        assertAll(
+                () -> assertTrue(unclosed.getLineNumber() > 0, "XML errors have a line"),
+                () -> assertEquals(duplicate.getLineNumber(), 8, "Duplicate locations are reported"),
+                () -> assertEquals(unnamed.getLineNumber(), 11, "Animals need a name"),
+                () -> assertEquals(unexpected.getLineNumber(), 15, "Unknown elements are reported")
+        );
+    }
+}
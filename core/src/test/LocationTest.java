@@ -46,6 +46,12 @@ class LocationTest {
         assertEquals(location.getAnimal("Seal"), seal, "Location.getAnimal is returning the wrong animal");
     }
 
+    @Test
+    void testGetAnimalByIndex() {
+        assertThrows(NoSuchElementException.class, () -> location.getAnimal(2), "Polar only has two animals");
+        assertEquals(location.getAnimal(0), seal, "Location.getAnimal is returning the wrong animal");
+    }
+
     @Test
     void testToString() {
         assertEquals(location.toString(), "Polar:\n[Seal, Penguin]");
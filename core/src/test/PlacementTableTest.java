@@ -0,0 +1,51 @@
+import discozoosolver.Block;
+import discozoosolver.Pattern;
+import discozoosolver.PlacementTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PlacementTableTest {
+
+    private static Pattern createBar() {
+        List<Block> blocks = new ArrayList<>();
+        blocks.add(new Block(0, 0));
+        blocks.add(new Block(1, 0));
+        blocks.add(new Block(2, 0));
+        return new Pattern(blocks);
+    }
+
+    @Test
+    void testPlacements() {
+        PlacementTable table = PlacementTable.forPattern(createBar());
+        List<Block> expected = new ArrayList<>();
+        expected.add(new Block(2, 4));
+        expected.add(new Block(3, 4));
+        expected.add(new Block(4, 4));
+        assertAll(
+                () -> assertEquals(table.size(), 15, "A 3x1 bar should have 15 placements"),
+                () -> assertEquals(table.getMask(0), 0b111, "The first placement should be in the top left"),
+                () -> assertEquals(table.getPosition(14), expected, "The last placement should be in the bottom right"),
+                () -> assertEquals(table.getMask(14), 0b111 << 22, "The last placement should be in the bottom right")
+        );
+    }
+
+    @Test
+    void testSharedBetweenPatterns() {
+        assertSame(PlacementTable.forPattern(createBar()), PlacementTable.forPattern(createBar()),
+                "Patterns with the same shape should share a table");
+    }
+
+    @Test
+    void testImmutable() {
+        PlacementTable table = PlacementTable.forPattern(createBar());
+        assertThrows(UnsupportedOperationException.class, () -> table.getPosition(0).add(new Block(0, 1)),
+                "Placements should not be modifiable");
+    }
+}
@@ -0,0 +1,109 @@
+import discozoosolver.Animal;
+import discozoosolver.Block;
+import discozoosolver.Board;
+import discozoosolver.GameSession;
+import discozoosolver.Location;
+import discozoosolver.Pattern;
+import discozoosolver.PolicyGenerator;
+import discozoosolver.PolicyTable;
+import discozoosolver.Recommendation;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PolicyTableTest {
+
+    private static Location createLocation() {
+        List<Block> row = new ArrayList<>();
+        List<Block> pair = new ArrayList<>();
+        for (int x = 0; x < 5; x++) {
+            row.add(new Block(x, 0));
+        }
+        pair.add(new Block(0, 0));
+        pair.add(new Block(1, 1));
+        return new Location("Test", List.of(new Animal("Row", new Pattern(row)), new Animal("Diagonal",
+                new Pattern(pair))));
+    }
+
+    private static Path createTempFile() throws IOException {
+        Path file = Files.createTempFile("policy", ".bin");
+        file.toFile().deleteOnExit();
+        return file;
+    }
+
+    @Test
+    void testGeneratedTable() throws IOException {
+        Location location = createLocation();
+        PolicyGenerator generator = new PolicyGenerator(Map.of("Test", location));
+        generator.addLocations(List.of("Test"), 1);
+        Path file = createTempFile();
+        generator.write(file);
+        PolicyTable table = PolicyTable.map(file);
+
+        GameSession session = new GameSession(location, List.of("Row"));
+        Recommendation first = table.get(session.getBoard().getStateHash());
+        session.miss(0, 0);
+        Recommendation second = table.get(session.getBoard().getStateHash());
+        session.miss(1, 1);
+        Recommendation offPolicy = table.get(session.getBoard().getStateHash());
+        assertAll(
+                () -> assertEquals(table.size(), generator.size(), "Every recommendation is written"),
+                () -> assertTrue(Files.size(file) <= 16 + 4 * 12 * table.size(),
+                        "Twelve bytes per slot with at least a quarter of the slots used"),
+                () -> assertEquals(first.getBlock(), new Block(0, 0), "The first row is tried first"),
+                () -> assertEquals(first.getExpectedClicks(), 7, 1e-4, "The row takes seven clicks on average"),
+                () -> assertEquals(second.getBlock(), new Block(0, 1), "The next row is tried after a miss"),
+                () -> assertNull(offPolicy, "Clicks away from the policy are not in the table")
+        );
+    }
+
+    @Test
+    void testBoardUsesPolicy() throws IOException {
+        Location location = createLocation();
+        GameSession session = new GameSession(location, List.of("Row", "Diagonal"));
+        long hash = session.getBoard().getStateHash();
+        Path file = createTempFile();
+        // A deliberately poor recommendation shows that the table is used in place of the search.
+        PolicyTable.write(file, Map.of(hash, new Recommendation(new Block(4, 4), 12.5)));
+
+        PolicyTable previous = Board.getPolicy();
+        Board.setPolicy(PolicyTable.map(file));
+        try {
+            Recommendation recommendation = session.getRecommendation();
+            assertAll(
+                    () -> assertNotNull(Board.getPolicy(), "The table is set"),
+                    () -> assertEquals(recommendation.getBlock(), new Block(4, 4), "The table's click is used"),
+                    () -> assertEquals(recommendation.getExpectedClicks(), 12.5, "The table's value is used")
+            );
+        } finally {
+            Board.setPolicy(previous);
+        }
+        assertSame(Board.getPolicy(), previous, "The previous table is restored");
+    }
+
+    @Test
+    void testInvalidFile() throws IOException {
+        Path file = createTempFile();
+        Files.write(file, new byte[]{1, 2, 3, 4});
+        Path empty = createTempFile();
+        PolicyTable.write(empty, Map.of());
+        assertAll(
+                () -> assertThrows(IllegalArgumentException.class, () -> PolicyTable.map(file)),
+                () -> assertNull(PolicyTable.map(empty).get(1), "An empty table holds nothing"),
+                () -> assertEquals(PolicyTable.map(empty).size(), 0, "An empty table has no entries")
+        );
+    }
+}
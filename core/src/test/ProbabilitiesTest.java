@@ -0,0 +1,47 @@
+import discozoosolver.Probabilities;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProbabilitiesTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    void testSingleAnimal() {
+        int[][] placements = {{0b11, 0b110, 0b1100}};
+        Probabilities probabilities = Probabilities.calculate(placements);
+        assertAll(
+                () -> assertEquals(probabilities.getLayoutCount(), 3, "Each candidate should be a layout"),
+                () -> assertEquals(probabilities.getProbability(0, 0), 1.0 / 3, DELTA, "Cell 0 is in one of three candidates"),
+                () -> assertEquals(probabilities.getProbability(0, 1), 2.0 / 3, DELTA, "Cell 1 is in two of three candidates"),
+                () -> assertEquals(probabilities.getProbability(0, 4), 0, DELTA, "Cell 4 is in no candidates")
+        );
+    }
+
+    @Test
+    void testOverlappingAnimals() {
+        // The layout using candidate 0b10 for both animals overlaps and must not be counted.
+        int[][] placements = {{0b1, 0b10}, {0b10, 0b100}};
+        Probabilities probabilities = Probabilities.calculate(placements);
+        assertAll(
+                () -> assertEquals(probabilities.getLayoutCount(), 3, "Overlapping layouts should be excluded"),
+                () -> assertEquals(probabilities.getProbability(0, 0), 2.0 / 3, DELTA, "First animal is in cell 0 in two layouts"),
+                () -> assertEquals(probabilities.getProbability(0, 1), 1.0 / 3, DELTA, "First animal is in cell 1 in one layout"),
+                () -> assertEquals(probabilities.getProbability(1, 1), 1.0 / 3, DELTA, "Second animal is in cell 1 in one layout"),
+                () -> assertEquals(probabilities.getProbability(1, 2), 2.0 / 3, DELTA, "Second animal is in cell 2 in two layouts"),
+                () -> assertEquals(probabilities.getHitProbability(1), 2.0 / 3, DELTA, "Cell 1 is occupied in two layouts")
+        );
+    }
+
+    @Test
+    void testNoValidLayouts() {
+        int[][] placements = {{0b1}, {0b1}};
+        Probabilities probabilities = Probabilities.calculate(placements);
+        assertAll(
+                () -> assertEquals(probabilities.getLayoutCount(), 0, "There should be no valid layouts"),
+                () -> assertEquals(probabilities.getHitProbability(0), 0, DELTA, "Probabilities should be 0 without layouts")
+        );
+    }
+}
@@ -0,0 +1,100 @@
+import discozoosolver.Animal;
+import discozoosolver.Block;
+import discozoosolver.GameSession;
+import discozoosolver.Location;
+import discozoosolver.Pattern;
+import discozoosolver.SessionStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SessionStoreTest {
+
+    private static Location createLocation() {
+        List<Block> row = new ArrayList<>();
+        List<Block> pair = new ArrayList<>();
+        for (int x = 0; x < 5; x++) {
+            row.add(new Block(x, 0));
+        }
+        pair.add(new Block(0, 0));
+        pair.add(new Block(0, 1));
+        return new Location("Test", List.of(new Animal("Row", new Pattern(row)), new Animal("Pair",
+                new Pattern(pair))));
+    }
+
+    private static GameSession createSession(Location location) {
+        GameSession session = new GameSession(location, List.of("Pair", "Row"));
+        session.miss(2, 2);
+        session.hit(0, 1, "Row");
+        return session;
+    }
+
+    @Test
+    void testSnapshot() {
+        Location location = createLocation();
+        GameSession session = createSession(location);
+        byte[] snapshot = session.toSnapshot(0);
+        GameSession restored = GameSession.fromSnapshot(snapshot, List.of(location));
+        assertAll(
+                () -> assertEquals(snapshot.length, 29, "Location, count, two animals and 25 cells"),
+                () -> assertEquals(snapshot[2], 1, "Pair is the second animal of the location"),
+                () -> assertEquals(snapshot[4 + 12], 1, "(2, 2) was a miss"),
+                () -> assertEquals(snapshot[4 + 5], 3, "(0, 1) was a hit on the second animal of the game"),
+                () -> assertArrayEquals(restored.toSnapshot(0), snapshot, "The snapshot is restored exactly"),
+                () -> assertEquals(restored.getProbabilities().getLayoutCount(),
+                        session.getProbabilities().getLayoutCount(), "The results are replayed"),
+                () -> assertEquals(restored.getBoard().getStateHash(), session.getBoard().getStateHash(),
+                        "The restored board has the same observations")
+        );
+    }
+
+    @Test
+    void testEviction() {
+        Location location = createLocation();
+        SessionStore store = new SessionStore(Map.of("Test", location), 0);
+        store.put("a", createSession(location));
+        store.put("b", createSession(location));
+        int spilled = store.getSpilledCount();
+        long layouts = store.withSession("a", session -> session.getProbabilities().getLayoutCount());
+        store.withSession("a", session -> {
+            session.miss(4, 4);
+            return null;
+        });
+        assertAll(
+                () -> assertEquals(spilled, 2, "Every session is spilled with no budget"),
+                () -> assertEquals(layouts, createSession(location).getProbabilities().getLayoutCount(),
+                        "A spilled session is restored"),
+                () -> assertEquals(store.getResidentCount(), 0, "Sessions are spilled again after use"),
+                () -> assertEquals(store.getResidentBytes(), 0, "No memory is held by spilled sessions"),
+                () -> assertEquals((int) store.withSession("a", session -> session.toSnapshot(0)[4 + 24]), 1,
+                        "Results made after restoring are kept")
+        );
+    }
+
+    @Test
+    void testBudget() {
+        Location location = createLocation();
+        SessionStore store = new SessionStore(Map.of("Test", location), 1 << 20);
+        store.put("a", createSession(location));
+        store.put("b", createSession(location));
+        assertAll(
+                () -> assertEquals(store.getResidentCount(), 2, "Sessions within the budget stay resident"),
+                () -> assertEquals(store.getSpilledCount(), 0, "No sessions are spilled within the budget"),
+                () -> assertTrue(store.getResidentBytes() > 0, "Resident sessions hold memory"),
+                () -> assertTrue(store.remove("a"), "A session is removed"),
+                () -> assertFalse(store.remove("a"), "A session is only removed once"),
+                () -> assertEquals(store.getResidentCount(), 1, "One session remains"),
+                () -> assertThrows(NoSuchElementException.class, () -> store.withSession("a", session -> null))
+        );
+    }
+}
@@ -0,0 +1,77 @@
+import discozoosolver.Animal;
+import discozoosolver.Block;
+import discozoosolver.Pattern;
+import discozoosolver.SimulationResult;
+import discozoosolver.Simulator;
+import discozoosolver.Strategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimulatorTest {
+
+    private static Animal createRowAnimal() {
+        List<Block> position = new ArrayList<>();
+        for (int x = 0; x < 5; x++) {
+            position.add(new Block(x, 0));
+        }
+        return new Animal("Row", new Pattern(position));
+    }
+
+    private static Animal createPairAnimal(String name) {
+        List<Block> position = new ArrayList<>();
+        position.add(new Block(0, 0));
+        position.add(new Block(1, 0));
+        return new Animal(name, new Pattern(position));
+    }
+
+    @Test
+    void testRowAnimal() {
+        // Searching down a column finds the row after one to five clicks, then its other four cells are clicked.
+        Simulator simulator = new Simulator(List.of(createRowAnimal()));
+        SimulationResult result = simulator.run(Strategy.COUNT, 10000, 1);
+        assertAll(
+                () -> assertEquals(simulator.getLayoutCount(), 5, "A row animal has five layouts"),
+                () -> assertEquals(result.getGames(), 10000, "Every game should be counted"),
+                () -> assertEquals(result.getMeanClicks(), 7, 0.1, "Expected 5 hits and 2 misses on average"),
+                () -> assertEquals(result.getGames(4), 0, "Every game needs at least five clicks"),
+                () -> assertEquals(result.getPercentileClicks(100), 9, "No game needs more than nine clicks"),
+                () -> assertEquals(result.getSuccessRate(), 1, 1e-9, "Every game fits in the click budget")
+        );
+    }
+
+    @Test
+    void testStrategies() {
+        Simulator simulator = new Simulator(List.of(createPairAnimal("First"), createPairAnimal("Second")));
+        for (Strategy strategy : Strategy.values()) {
+            SimulationResult result = simulator.run(strategy, 2000, 7, 5);
+            assertAll(
+                    () -> assertTrue(result.getMeanClicks() >= 4, strategy + " cannot take fewer clicks than cells"),
+                    () -> assertTrue(result.getPercentileClicks(50) <= result.getPercentileClicks(90),
+                            strategy + " percentiles should not decrease"),
+                    () -> assertEquals(result.getSuccessRate(), (double) result.getGames(4) / 2000
+                            + (double) result.getGames(5) / 2000, 1e-9, strategy + " success rate should match budget")
+            );
+        }
+    }
+
+    @Test
+    void testReproducible() {
+        Simulator simulator = new Simulator(List.of(createPairAnimal("First"), createPairAnimal("Second")));
+        SimulationResult first = simulator.run(Strategy.RANDOM, 50000, 42);
+        SimulationResult second = simulator.run(Strategy.RANDOM, 50000, 42);
+        assertEquals(first.toString(), second.toString(), "The same seed should give the same result");
+    }
+
+    @Test
+    void testNoAnimals() {
+        assertThrows(IllegalArgumentException.class, () -> new Simulator(List.of()),
+                "A game needs at least one animal");
+    }
+}
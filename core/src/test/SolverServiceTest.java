@@ -0,0 +1,119 @@
+import discozoosolver.Animal;
+import discozoosolver.Block;
+import discozoosolver.Location;
+import discozoosolver.Pattern;
+import discozoosolver.SolverService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SolverServiceTest {
+    private SolverService service;
+
+    @BeforeEach
+    void startService() throws IOException {
+        List<Block> position = new ArrayList<>();
+        for (int x = 0; x < 5; x++) {
+            position.add(new Block(x, 0));
+        }
+        Animal row = new Animal("Row", new Pattern(position));
+        service = new SolverService(Map.of("Test", new Location("Test", List.of(row))));
+        service.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    }
+
+    @AfterEach
+    void stopService() {
+        service.stop();
+    }
+
+    /**
+     * @return The status code and body of the response, separated by a space.
+     */
+    private String request(String method, String path) throws IOException {
+        URL url = new URL("http://localhost:" + service.getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        int status = connection.getResponseCode();
+        try (InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            return status + " " + new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    void testGame() throws IOException {
+        String start = request("POST", "/games?location=Test&animals=Row");
+        String first = request("GET", "/games/1/recommendation");
+        String miss = request("POST", "/games/1/miss?x=0&y=0");
+        String second = request("GET", "/games/1/recommendation");
+        String probabilities = request("GET", "/games/1/probabilities");
+        assertAll(
+                () -> assertEquals(start, "200 {\"session\":\"1\",\"finished\":false}", "A session is started"),
+                () -> assertEquals(first, "200 {\"next\":{\"x\":0,\"y\":0}}", "The first cell is recommended"),
+                () -> assertEquals(miss, "200 {\"session\":\"1\",\"finished\":false}", "The miss is applied"),
+                () -> assertEquals(second, "200 {\"next\":{\"x\":0,\"y\":1}}", "The top row is ruled out"),
+                () -> assertTrue(probabilities.startsWith("200 {\"layouts\":4,\"cells\":[0.0,0.0,0.0,0.0,0.0,0.25,"),
+                        "Four rows remain"),
+                () -> assertEquals(service.getSessions().size(), 1, "One session is in progress")
+        );
+    }
+
+    @Test
+    void testFinishedGame() throws IOException {
+        request("POST", "/games?location=Test&animals=Row");
+        String last = "";
+        for (int x = 0; x < 5; x++) {
+            last = request("POST", "/games/1/hit?x=" + x + "&y=4&animal=Row");
+        }
+        String end = last;
+        String recommendation = request("GET", "/games/1/recommendation?optimal=true");
+        String delete = request("DELETE", "/games/1");
+        assertAll(
+                () -> assertEquals(end, "200 {\"session\":\"1\",\"finished\":true}", "The game is finished"),
+                () -> assertEquals(recommendation, "200 {\"next\":null,\"expectedClicks\":0.0,\"exact\":true}",
+                        "No click is recommended"),
+                () -> assertEquals(delete, "200 {\"session\":\"1\"}", "The session is ended"),
+                () -> assertEquals(service.getSessions().size(), 0, "No sessions are in progress")
+        );
+    }
+
+    @Test
+    void testErrors() throws IOException {
+        request("POST", "/games?location=Test&animals=Row");
+        assertAll(
+                () -> assertEquals(request("POST", "/games?location=Nowhere&animals=Row").substring(0, 3), "400",
+                        "Unknown locations are rejected"),
+                () -> assertEquals(request("POST", "/games?location=Test&animals=Cow").substring(0, 3), "400",
+                        "Unknown animals are rejected"),
+                () -> assertEquals(request("POST", "/games?location=%22No%0Awhere%5C&animals=Row"),
+                        "400 {\"error\":\"Unknown location: \\\"No\\u000awhere\\\\\"}",
+                        "Quotes, backslashes and control characters are escaped in errors"),
+                () -> assertEquals(request("POST", "/games/9/miss?x=0&y=0").substring(0, 3), "404",
+                        "Unknown sessions are not found"),
+                () -> assertEquals(request("GET", "/games/1/miss?x=0&y=0").substring(0, 3), "405",
+                        "Results must be posted"),
+                () -> assertEquals(request("POST", "/games/1/miss?x=a&y=0").substring(0, 3), "400",
+                        "Coordinates must be numbers"),
+                () -> assertEquals(request("POST", "/games/1/hit?x=0&y=0&animal=Row").substring(0, 3), "200",
+                        "A hit is applied"),
+                () -> assertEquals(request("POST", "/games/1/miss?x=1&y=0").substring(0, 3), "409",
+                        "Contradictory results are a conflict")
+        );
+    }
+}
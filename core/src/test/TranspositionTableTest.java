@@ -0,0 +1,47 @@
+import discozoosolver.TranspositionTable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TranspositionTableTest {
+
+    @Test
+    void testGetAndPut() {
+        TranspositionTable<String> table = new TranspositionTable<>(16);
+        table.put(42L, 1, "first");
+        table.put(42L, 1, "second");
+        assertAll(
+                () -> assertEquals(table.get(42L), "second", "Storing a state again should replace its value"),
+                () -> assertNull(table.get(7L), "An unknown state should not be found"),
+                () -> assertEquals(table.size(), 1, "Replacing a value should not add an entry"),
+                () -> assertEquals(table.getHits(), 1, "One lookup should have found a value"),
+                () -> assertEquals(table.getMisses(), 1, "One lookup should have found nothing")
+        );
+    }
+
+    @Test
+    void testEviction() {
+        // A table of two entries has a single bucket, so a third state must evict one of the others.
+        TranspositionTable<String> table = new TranspositionTable<>(2);
+        table.put(1L, 100, "heavy");
+        table.put(2L, 1, "light");
+        table.put(3L, 2, "newest");
+        assertAll(
+                () -> assertEquals(table.capacity(), 2, "The capacity should not grow"),
+                () -> assertEquals(table.size(), 2, "The table should stay full"),
+                () -> assertEquals(table.getEvictions(), 1, "One entry should have been evicted"),
+                () -> assertEquals(table.get(1L), "heavy", "The heaviest entry should be kept"),
+                () -> assertEquals(table.get(3L), "newest", "The newest entry should be kept"),
+                () -> assertNull(table.get(2L), "The light entry should have been evicted")
+        );
+    }
+
+    @Test
+    void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> new TranspositionTable<String>(0),
+                "A table must hold at least one entry");
+    }
+}
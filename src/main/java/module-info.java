@@ -1,9 +1,7 @@
 module DiscoZooSolver {
     exports ui;
-    exports discozoosolver;
-    requires java.xml;
+    requires DiscoZooSolverCore;
     requires javafx.graphics;
     requires javafx.controls;
     requires javafx.base;
-    requires java.logging;
-}
\ No newline at end of file
+}
@@ -0,0 +1,217 @@
+package ui;
+
+import discozoosolver.Block;
+import discozoosolver.Board;
+import discozoosolver.BoardSnapshot;
+import discozoosolver.Location;
+import discozoosolver.Recommendation;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the solver away from the JavaFX application thread.
+ * <p>
+ * The board is owned by a single background thread, which applies each new game, hit and miss in the order they were
+ * made and then hands an immutable snapshot of the board to the display. The recommended click for that snapshot is
+ * then searched for on a second thread and handed over when it is found. The display thread never touches the board,
+ * so it stays responsive however long the solver takes, and only ever applies finished snapshots.
+ * <p>
+ * Each action supersedes the work for the actions before it. Snapshots which are already out of date when they are
+ * taken are not handed over, and a search still running when a new action arrives is cancelled.
+ */
+public class AsyncSolver {
+    private final Board board;
+    private final Executor display;
+    private final Listener listener;
+    private final ExecutorService updates;
+    private final ExecutorService searches;
+    private final AtomicLong generation;
+
+    /**
+     * Sole constructor for AsyncSolver. The board must not be used by any other thread once it has been passed in.
+     *
+     * @param board    The board to solve.
+     * @param display  Runs tasks on the display thread, such as Platform::runLater.
+     * @param listener The listener to notify, on the display thread, of snapshots, recommendations and errors.
+     */
+    public AsyncSolver(Board board, Executor display, Listener listener) {
+        this.board = board;
+        this.display = display;
+        this.listener = listener;
+        this.updates = Executors.newSingleThreadExecutor(task -> createThread(task, "solver-updates"));
+        this.searches = Executors.newSingleThreadExecutor(task -> createThread(task, "solver-search"));
+        this.generation = new AtomicLong();
+    }
+
+    /**
+     * @param task The task for the thread to run.
+     * @param name The name of the thread.
+     * @return A daemon thread, so that a search in progress does not keep the application open.
+     */
+    private static Thread createThread(Runnable task, String name) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    /**
+     * Starts a new game in the board.
+     *
+     * @param location The location which is being searched.
+     * @param animals  The names of the discoverable animals.
+     */
+    public void startGame(Location location, List<String> animals) {
+        List<String> names = List.copyOf(animals);
+        submit(() -> {
+            board.resetBoard();
+            board.setLocation(location.getName());
+            for (String animal : names) {
+                board.addAnimal(location.getAnimal(animal));
+            }
+            board.generateCandidates();
+        });
+    }
+
+    /**
+     * Confirms that the provided animal was hit in the provided block. Clicks on cells which were finalised by an
+     * earlier action are ignored.
+     *
+     * @param block  The block in which the animal was found.
+     * @param animal The animal which was found.
+     */
+    public void confirmHit(Block block, String animal) {
+        submit(() -> {
+            if (!board.getCells().get(block.index()).getFinalised()) {
+                board.confirmHit(block, animal);
+            }
+        });
+    }
+
+    /**
+     * Confirms that the provided block is empty. Clicks on cells which were finalised by an earlier action are
+     * ignored.
+     *
+     * @param block The block which is empty.
+     */
+    public void confirmMiss(Block block) {
+        submit(() -> {
+            if (!board.getCells().get(block.index()).getFinalised()) {
+                board.confirmMiss(block);
+            }
+        });
+    }
+
+    /**
+     * Returns the board to the step before the latest one, if there is one.
+     */
+    public void undo() {
+        submit(() -> {
+            if (board.canUndo()) {
+                board.undo();
+            }
+        });
+    }
+
+    /**
+     * Returns the board to the step after the current one, if it was undone.
+     */
+    public void redo() {
+        submit(() -> {
+            if (board.canRedo()) {
+                board.redo();
+            }
+        });
+    }
+
+    /**
+     * Queues an action on the board, followed by handing over its snapshot and searching for its recommendation.
+     *
+     * @param action The change to make to the board.
+     */
+    private void submit(Runnable action) {
+        long id = generation.incrementAndGet();
+        updates.execute(() -> {
+            try {
+                action.run();
+            } catch (RuntimeException e) {
+                // The board only throws once the results leave an animal with nowhere to be, and is left as it was.
+                display.execute(() -> listener.solverFailed("No layout of the animals agrees with the results"));
+                return;
+            }
+            if (generation.get() != id) {
+                return;
+            }
+            BoardSnapshot snapshot = board.snapshot();
+            display.execute(() -> listener.snapshotReady(snapshot));
+            try {
+                searches.execute(() -> recommend(snapshot, id));
+            } catch (RejectedExecutionException e) {
+                // The solver has been shut down since the action was queued.
+            }
+        });
+    }
+
+    /**
+     * Searches for the recommendation for a snapshot, unless a newer action has already superseded it.
+     *
+     * @param snapshot The snapshot to search from.
+     * @param id       The generation of the action which produced the snapshot.
+     */
+    private void recommend(BoardSnapshot snapshot, long id) {
+        if (generation.get() != id) {
+            return;
+        }
+        try {
+            Recommendation recommendation = snapshot.getRecommendation(() -> generation.get() != id);
+            display.execute(() -> {
+                if (generation.get() == id) {
+                    listener.recommendationReady(snapshot, recommendation);
+                }
+            });
+        } catch (CancellationException e) {
+            // A newer action has its own search queued behind this one.
+        }
+    }
+
+    /**
+     * Stops the background threads. Work already queued is abandoned.
+     */
+    public void shutdown() {
+        generation.incrementAndGet();
+        updates.shutdownNow();
+        searches.shutdownNow();
+    }
+
+    /**
+     * Receives the results of the solver on the display thread.
+     */
+    public interface Listener {
+        /**
+         * Called with the board's state after each action, in the order the actions were made.
+         *
+         * @param snapshot The state of the board.
+         */
+        void snapshotReady(BoardSnapshot snapshot);
+
+        /**
+         * Called once the recommendation for the latest snapshot has been found.
+         *
+         * @param snapshot       The snapshot the recommendation was made for.
+         * @param recommendation The recommended click.
+         */
+        void recommendationReady(BoardSnapshot snapshot, Recommendation recommendation);
+
+        /**
+         * Called when an action could not be applied to the board.
+         *
+         * @param message A description of the problem.
+         */
+        void solverFailed(String message);
+    }
+}
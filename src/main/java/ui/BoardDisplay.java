@@ -1,24 +1,36 @@
 package ui;
 
-import discozoosolver.Board;
-import discozoosolver.Cell;
+import discozoosolver.Block;
+import discozoosolver.BoardSnapshot;
+import discozoosolver.Constants;
 import javafx.geometry.Pos;
 import javafx.scene.layout.GridPane;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
- * Display class which contains the grid of cells.
+ * Display class which contains the grid of cells. It is handed a snapshot of the board whenever the board changes
+ * and re-renders the cells whose state changed.
  */
-public class BoardDisplay {
+public class BoardDisplay implements BoardView {
     private GridPane display;
-    private Board board;
+    private List<CellDisplay> cellDisplays;
+    private BoardSnapshot snapshot;
 
     /**
-     * Sole constructor for BoardDisplay which populates the grid with the cells from the provided board.
+     * Sole constructor for BoardDisplay which populates the grid with a display for each cell of the board. The cells
+     * are empty until the first snapshot is shown.
      *
-     * @param board The board for which to create a display.
+     * @param solver The solver which handles clicks on the cells.
      */
-    public BoardDisplay(Board board) {
-        this.board = board;
+    public BoardDisplay(SolverApp solver) {
+        this.cellDisplays = new ArrayList<>();
+        for (int y = 0; y < Constants.BOARD_SIZE; y++) {
+            for (int x = 0; x < Constants.BOARD_SIZE; x++) {
+                cellDisplays.add(new CellDisplay(solver, new Block(x, y)));
+            }
+        }
         this.display = createDisplay();
     }
 
@@ -32,25 +44,56 @@ public class BoardDisplay {
         GridPane gridPane = new GridPane();
         gridPane.setGridLinesVisible(true);
         gridPane.setAlignment(Pos.CENTER);
-        for (Cell cell : board.getCells()) {
-            gridPane.add(cell.getDisplay().getContents(), cell.getX(), cell.getY());
+        for (CellDisplay cellDisplay : cellDisplays) {
+            gridPane.add(cellDisplay.getContents(), cellDisplay.getBlock().x(), cellDisplay.getBlock().y());
         }
         return gridPane;
     }
 
+    /**
+     * Updates the display for each cell which differs from the last snapshot shown.
+     *
+     * @param snapshot The state of the board.
+     */
+    @Override
+    public void showSnapshot(BoardSnapshot snapshot) {
+        int changed = snapshot.getChangedCells(this.snapshot);
+        this.snapshot = snapshot;
+        for (CellDisplay cellDisplay : cellDisplays) {
+            if ((changed & cellDisplay.getBlock().toMask()) != 0) {
+                cellDisplay.populateCell(snapshot);
+            }
+        }
+    }
+
     /**
      * Updates the display for each cell.
      */
+    @Override
     public void updateDisplay() {
-        for (Cell cell : board.getCells()) {
-            cell.updateDisplay();
+        if (snapshot == null) {
+            return;
+        }
+        for (CellDisplay cellDisplay : cellDisplays) {
+            cellDisplay.populateCell(snapshot);
+        }
+    }
+
+    /**
+     * Resizes each cell to match the current window height.
+     */
+    @Override
+    public void resize() {
+        for (CellDisplay cellDisplay : cellDisplays) {
+            cellDisplay.setPrefSize();
         }
     }
 
     /**
      * @return The display element.
      */
-    GridPane getDisplay() {
+    @Override
+    public GridPane getDisplay() {
         return display;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,33 @@
+package ui;
+
+import discozoosolver.BoardSnapshot;
+import javafx.scene.Node;
+
+/**
+ * A display of the board, which renders snapshots of the board's cells and passes clicks on them to the solver.
+ * <p>
+ * BoardDisplay renders each cell as its own nodes, while CanvasBoardDisplay draws the whole board onto a single canvas.
+ */
+interface BoardView {
+    /**
+     * Renders a new snapshot of the board, redrawing only the cells which differ from the last snapshot shown.
+     *
+     * @param snapshot The state of the board.
+     */
+    void showSnapshot(BoardSnapshot snapshot);
+
+    /**
+     * Renders every cell from the last snapshot shown.
+     */
+    void updateDisplay();
+
+    /**
+     * Resizes the board to match the current window height.
+     */
+    void resize();
+
+    /**
+     * @return The display element.
+     */
+    Node getDisplay();
+}
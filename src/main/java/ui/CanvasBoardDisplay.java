@@ -0,0 +1,220 @@
+package ui;
+
+import discozoosolver.Block;
+import discozoosolver.BoardSnapshot;
+import discozoosolver.Constants;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ui.DisplayConstants.CELL_HEIGHT_FACTOR;
+
+/**
+ * Display class which draws the whole board onto a single canvas, as an alternative to BoardDisplay's grid of nodes.
+ * Cells are drawn in the same layout and colours as CellDisplay, with every icon drawn from one SpriteAtlas, so the
+ * board is a single node however many icons it shows and resizing redraws it rather than laying out its icons.
+ * <p>
+ * The display is handed a snapshot of the board whenever the board changes and redraws only the cells whose state
+ * changed. Clicks are mapped back from their position to the cell and icon under them.
+ */
+public class CanvasBoardDisplay implements BoardView {
+    private static final double ICON_OPACITY = 0.9;
+    private static final int CELLS = Constants.BOARD_SIZE * Constants.BOARD_SIZE;
+    private static final Color GRID_COLOUR = Color.BLACK;
+    private static final Color KNOWN_COLOUR = Color.web(DisplayConstants.KNOWN_HIGHLIGHT);
+    private static final Color PRIORITY_COLOUR = Color.web(DisplayConstants.PRIORITY_HIGHLIGHT);
+
+    private final SolverApp solver;
+    private final List<String> spriteNames;
+    private final Canvas canvas;
+    private final StackPane display;
+    private final Map<Integer, SpriteAtlas> atlases;
+    private SpriteAtlas atlas;
+    private double cellSize;
+    private BoardSnapshot snapshot;
+
+    /**
+     * Sole constructor for CanvasBoardDisplay which sizes the canvas to the window. Only the grid is drawn until the
+     * first snapshot is shown.
+     *
+     * @param solver      The solver which handles clicks on the cells.
+     * @param spriteNames The names of every animal which may be shown. The miss icon is always included.
+     */
+    public CanvasBoardDisplay(SolverApp solver, Collection<String> spriteNames) {
+        this.solver = solver;
+        this.spriteNames = new ArrayList<>(spriteNames);
+        this.spriteNames.add(DisplayConstants.BLANK_DARK);
+        this.canvas = new Canvas();
+        this.display = new StackPane(canvas);
+        this.atlases = new HashMap<>();
+        canvas.setOnMouseClicked((MouseEvent event) -> handleClick(event.getX(), event.getY()));
+        resize();
+    }
+
+    /**
+     * Draws each cell which differs from the last snapshot shown.
+     *
+     * @param snapshot The state of the board.
+     */
+    @Override
+    public void showSnapshot(BoardSnapshot snapshot) {
+        int changed = snapshot.getChangedCells(this.snapshot);
+        this.snapshot = snapshot;
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        for (int bits = changed; bits != 0; bits &= bits - 1) {
+            drawCell(gc, Integer.numberOfTrailingZeros(bits));
+        }
+    }
+
+    /**
+     * Draws every cell from the last snapshot shown, or only the grid if none has been.
+     */
+    @Override
+    public void updateDisplay() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, canvas.getWidth(), canvas.getHeight());
+        for (int cell = 0; cell < CELLS; cell++) {
+            if (snapshot == null) {
+                drawGrid(gc, cell);
+            } else {
+                drawCell(gc, cell);
+            }
+        }
+    }
+
+    /**
+     * Resizes the canvas to match the current window height and redraws it. A sprite atlas is only built the first
+     * time the cell size moves into a different tile size and is kept afterwards, so resizing back and forth across a
+     * tile size does not pause to pack the sprites again. There are only a few tile sizes, so only a few atlases.
+     */
+    @Override
+    public void resize() {
+        cellSize = solver.getHeight() * CELL_HEIGHT_FACTOR;
+        canvas.setWidth(cellSize * Constants.BOARD_SIZE);
+        canvas.setHeight(cellSize * Constants.BOARD_SIZE);
+        int tileSize = SpriteAtlas.tileSizeFor(cellSize);
+        atlas = atlases.computeIfAbsent(tileSize, size -> new SpriteAtlas(spriteNames, size));
+        updateDisplay();
+    }
+
+    /**
+     * Draws a cell's background, icons and grid lines over whatever was drawn there before. The icons are the same as
+     * CellDisplay shows, with a single icon filling the cell and several icons sharing it in a grid.
+     *
+     * @param gc   The canvas' graphics context.
+     * @param cell The index of the cell to draw.
+     */
+    private void drawCell(GraphicsContext gc, int cell) {
+        double left = (cell % Constants.BOARD_SIZE) * cellSize;
+        double top = (cell / Constants.BOARD_SIZE) * cellSize;
+        gc.clearRect(left, top, cellSize, cellSize);
+        if (snapshot.isKnown(cell)) {
+            gc.setFill(KNOWN_COLOUR);
+            gc.fillRect(left, top, cellSize, cellSize);
+        } else if (!snapshot.isFinalised(cell) && snapshot.isPriority(cell)) {
+            gc.setFill(PRIORITY_COLOUR);
+            gc.fillRect(left, top, cellSize, cellSize);
+        }
+
+        List<String> icons = CellDisplay.getIconNames(snapshot, cell);
+        gc.setGlobalAlpha(ICON_OPACITY);
+        if (icons.size() == 1) {
+            atlas.draw(gc, icons.get(0), left, top, cellSize);
+        } else {
+            double iconSize = cellSize / 2;
+            for (int i = 0; i < icons.size(); i++) {
+                atlas.draw(gc, icons.get(i), left + (i % 2) * iconSize, top + (i / 2) * iconSize, iconSize);
+            }
+        }
+        gc.setGlobalAlpha(1);
+        drawGrid(gc, cell);
+    }
+
+    /**
+     * @param gc   The canvas' graphics context.
+     * @param cell The index of the cell whose grid lines to draw.
+     */
+    private void drawGrid(GraphicsContext gc, int cell) {
+        gc.setStroke(GRID_COLOUR);
+        gc.setLineWidth(1);
+        // Lines are drawn on the half pixel so that they cover exactly one row or column of pixels.
+        gc.strokeRect(Math.floor((cell % Constants.BOARD_SIZE) * cellSize) + 0.5,
+                Math.floor((cell / Constants.BOARD_SIZE) * cellSize) + 0.5, Math.floor(cellSize) - 1,
+                Math.floor(cellSize) - 1);
+    }
+
+    /**
+     * Confirms the appropriate hit/miss with the board for the icon under a click.
+     *
+     * @param x The x coordinate of the click on the canvas.
+     * @param y The y coordinate of the click on the canvas.
+     */
+    private void handleClick(double x, double y) {
+        Block block = getBlockAt(x, y);
+        String icon = getIconAt(x, y);
+        if (block != null && icon != null) {
+            CellDisplay.handleClick(solver, snapshot, block, icon);
+        }
+    }
+
+    /**
+     * @param x The x coordinate of a point on the canvas.
+     * @param y The y coordinate of a point on the canvas.
+     * @return The block drawn at that point, or null if the point is off the board.
+     */
+    public Block getBlockAt(double x, double y) {
+        if (x < 0 || y < 0 || cellSize <= 0) {
+            return null;
+        }
+        int column = (int) (x / cellSize);
+        int row = (int) (y / cellSize);
+        if (column >= Constants.BOARD_SIZE || row >= Constants.BOARD_SIZE) {
+            return null;
+        }
+        return new Block(column, row);
+    }
+
+    /**
+     * @param x The x coordinate of a point on the canvas.
+     * @param y The y coordinate of a point on the canvas.
+     * @return The filename of the icon drawn at that point, or null if there is no icon there.
+     */
+    public String getIconAt(double x, double y) {
+        Block block = getBlockAt(x, y);
+        if (block == null || snapshot == null) {
+            return null;
+        }
+        List<String> icons = CellDisplay.getIconNames(snapshot, block.index());
+        if (icons.size() == 1) {
+            return icons.get(0);
+        }
+        double iconSize = cellSize / 2;
+        int column = (x - block.x() * cellSize) < iconSize ? 0 : 1;
+        int row = (y - block.y() * cellSize) < iconSize ? 0 : 1;
+        int index = row * 2 + column;
+        return index < icons.size() ? icons.get(index) : null;
+    }
+
+    /**
+     * @return The size of each cell on the canvas.
+     */
+    public double getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * @return The display element, which centres the canvas.
+     */
+    @Override
+    public StackPane getDisplay() {
+        return display;
+    }
+}
@@ -1,16 +1,15 @@
 package ui;
 
-import discozoosolver.Cell;
-import discozoosolver.Constants;
+import discozoosolver.Block;
+import discozoosolver.BoardSnapshot;
 import javafx.event.Event;
-import javafx.scene.Node;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.GridPane;
 
+import java.util.ArrayList;
 import java.util.List;
 
-import static discozoosolver.Constants.CELL_HEIGHT_FACTOR;
+import static ui.DisplayConstants.CELL_HEIGHT_FACTOR;
 
 /**
  * Display class which is responsible for rendering the contents of a single cell. The main responsibility of a cell is
@@ -22,35 +21,55 @@ import static discozoosolver.Constants.CELL_HEIGHT_FACTOR;
  * be highlighted gold and only the animal it contains is displayed.
  * - Priority: If the cell is currently the non-known/finalised cell most likely to contain an animal it is
  * highlighted green and all options are shown.
+ * <p>
+ * The icons are created once and reused, so rendering a cell only changes the images, sizes and visibility of nodes
+ * which already exist rather than rebuilding the cell's part of the scene graph.
+ * <p>
+ * Cells are rendered from immutable snapshots of the board, which is updated on another thread.
  */
 public class CellDisplay {
+    /* Style applied to the background of a cell in each state */
+    private static final String KNOWN_STYLE = "-fx-background-color: " + DisplayConstants.KNOWN_HIGHLIGHT + ";";
+    private static final String PRIORITY_STYLE = "-fx-background-color: " + DisplayConstants.PRIORITY_HIGHLIGHT + ";";
+    private static final String REGULAR_STYLE = "";
+
     private GridPane contents;
     private SolverApp solver;
-    private Cell cell;
+    private Block block;
+    private BoardSnapshot snapshot;
+    private List<ImageView> icons;
 
     /**
-     * Sole constructor for CellDisplay. It is linked to the solver which created it and the cell which contains all
-     * state logic.
+     * Sole constructor for CellDisplay. It is linked to the solver which created it and the block of the board it
+     * represents. Nothing is shown until the first snapshot is rendered.
      *
      * @param solver The solver which created this celldisplay.
-     * @param cell   The cell which this display represents.
+     * @param block  The block which this display represents.
      */
-    public CellDisplay(SolverApp solver, Cell cell) {
+    public CellDisplay(SolverApp solver, Block block) {
         contents = new GridPane();
         this.solver = solver;
-        this.cell = cell;
+        this.block = block;
+        this.icons = new ArrayList<>();
         setPrefSize();
     }
 
     void setPrefSize() {
         contents.setPrefSize(this.solver.getHeight() * CELL_HEIGHT_FACTOR, this.solver.getHeight() * CELL_HEIGHT_FACTOR);
-        for (Node item : contents.getChildren()) {
-            ImageView iv = (ImageView) item;
-            double factor = ((cell.getFinalised()) || cell.getKnown()) ? 1 : 0.5;
-            iv.setFitWidth(this.solver.getHeight() * CELL_HEIGHT_FACTOR * factor);
+        for (ImageView iv : icons) {
+            if (iv.isVisible()) {
+                showIcon(iv, (String) iv.getUserData());
+            }
         }
     }
 
+    /**
+     * @return The block which this display represents.
+     */
+    Block getBlock() {
+        return block;
+    }
+
     /**
      * @return The display element for this cell.
      */
@@ -59,120 +78,157 @@ public class CellDisplay {
     }
 
     /**
-     * Renders the appropriate view given the current state of the cell.
+     * Renders the appropriate view given the state of the cell in a snapshot of the board.
+     *
+     * @param snapshot The snapshot to render.
      */
-    public void populateCell() {
-        clearContents();
-        if (cell.getKnown()) {
-            renderKnown();
-        } else if (cell.getFinalised()) {
-            renderFinalised();
+    public void populateCell(BoardSnapshot snapshot) {
+        this.snapshot = snapshot;
+        int cell = block.index();
+        showIcons(getIconNames(snapshot, cell));
+        if (snapshot.isKnown(cell)) {
+            setStyle(KNOWN_STYLE);
+        } else if (!snapshot.isFinalised(cell) && snapshot.isPriority(cell)) {
+            setStyle(PRIORITY_STYLE);
         } else {
-            renderAnimals();
+            setStyle(REGULAR_STYLE);
         }
     }
 
     /**
-     * Renders the known view of the cell. This occurs when the solver has determined the contents of the cell and the user
-     * has not yet actioned it. The cell will be rendered with a gold background and a single icon representing the
-     * animal.
+     * Works out which icons a cell shows in its current state:
+     * - Known: The solver has determined the contents of the cell and the user has not yet actioned it. A single icon
+     * representing the animal is shown on a gold background.
+     * - Finalised: A single icon representing either the animal that was found or the miss icon to show it is empty.
+     * - Priority and standard: At least one animal and a miss icon, shown in a grid within the cell. If the cell is a
+     * priority, it is also highlighted green.
+     *
+     * @param snapshot The state of the board.
+     * @param cell     The index of the cell.
+     * @return The filenames of the icons, in the order they fill the grid.
      */
-    private void renderKnown() {
-        List<String> animals = cell.getAnimals();
-        ImageView iv = createImageView(animals.get(0));
-        contents.add(iv, 0, 0);
-        contents.setStyle("-fx-background-color: #ffc107;");
+    static List<String> getIconNames(BoardSnapshot snapshot, int cell) {
+        List<String> animals = snapshot.getAnimals(cell);
+        if (snapshot.isKnown(cell)) {
+            return List.of(animals.get(0));
+        } else if (snapshot.isFinalised(cell)) {
+            return List.of(animals.isEmpty() ? DisplayConstants.BLANK_DARK : animals.get(0));
+        }
+        List<String> icons = new ArrayList<>(animals);
+        icons.add(DisplayConstants.BLANK_DARK);
+        return icons;
     }
 
     /**
-     * Renders the finalised view of the cell. In this state, the cell is not highlighted but a single icon representing
-     * either the animal that was found or the miss icon to show it is empty.
+     * Confirms the appropriate hit/miss with the board when an icon in a cell is clicked. Clicks on cells which are
+     * finalised in the snapshot shown do nothing.
+     *
+     * @param solver   The solver to confirm the click with.
+     * @param snapshot The snapshot shown when the cell was clicked.
+     * @param block    The block which was clicked.
+     * @param filename The filename of the icon which was clicked.
      */
-    private void renderFinalised() {
-        List<String> animals = cell.getAnimals();
-        String filename;
-        if (animals.isEmpty()) {
-            filename = Constants.BLANK_DARK;
+    static void handleClick(SolverApp solver, BoardSnapshot snapshot, Block block, String filename) {
+        if (snapshot == null || snapshot.isFinalised(block.index())) {
+            return;
+        }
+        if (filename.equals(DisplayConstants.BLANK_DARK)) {
+            solver.setConsole("Miss at " + block.x() + ", " + block.y());
+            solver.confirmMiss(block);
         } else {
-            filename = animals.get(0);
+            solver.setConsole(filename + " hit at " + block.x() + ", " + block.y());
+            solver.confirmHit(block, filename);
         }
-        ImageView iv = createImageView(filename);
-        contents.add(iv, 0, 0);
     }
 
     /**
-     * Renders the priority and standard views of the cell. In these states there will be at least one animal and a
-     * miss icon rendered in a grid within the cell. If the cell is a priority, it is also highlighted green.
+     * Clears the cell display hiding any icons and resetting the background colour.
      */
-    private void renderAnimals() {
-        List<String> animals = cell.getAnimals();
-        for (int i = 0; i < animals.size(); i++) {
-            String animal = animals.get(i);
-            ImageView iv = createImageView(animal);
-            contents.add(iv, i % 2, (i > 1) ? 1 : 0);
-        }
-        ImageView iv = createImageView(Constants.BLANK_DARK);
-        contents.add(iv, animals.size() % 2, (animals.size() > 1) ? 1 : 0);
-        if (cell.getPriority()) {
-            contents.setStyle("-fx-background-color: #66bb6a;");
-        }
+    public void clearContents() {
+        showIcons(List.of());
+        setStyle(REGULAR_STYLE);
     }
 
     /**
-     * Clears the cell display removing any icons and resetting the background colour.
+     * Shows the given icons in a grid, two to a row, and hides any icons left over from earlier renders.
+     *
+     * @param filenames The filenames of the images to show.
      */
-    public void clearContents() {
-        contents.getChildren().clear();
-        contents.setStyle("");
+    private void showIcons(List<String> filenames) {
+        while (icons.size() < filenames.size()) {
+            ImageView iv = createImageView();
+            contents.add(iv, icons.size() % 2, icons.size() / 2);
+            icons.add(iv);
+        }
+        for (int i = 0; i < icons.size(); i++) {
+            ImageView iv = icons.get(i);
+            boolean shown = i < filenames.size();
+            if (shown) {
+                showIcon(iv, filenames.get(i));
+            }
+            iv.setVisible(shown);
+            iv.setManaged(shown);
+        }
     }
 
     /**
-     * Creates an imageview for the given filename. The size is determined by the cell's state and the onclick method
-     * confirms the appropriate hit/miss with the board.
+     * Points an icon at the image for the given filename, sized for the cell's state. The image is only replaced if
+     * the filename or size has changed.
      *
+     * @param iv       The icon.
      * @param filename The filename of the image.
-     * @return The resulting imageview.
      */
-    private ImageView createImageView(String filename) {
+    private void showIcon(ImageView iv, String filename) {
         if (filename.equals("blank")) {
-            filename = "blank-dark";
+            filename = DisplayConstants.BLANK_DARK;
+        }
+        double width = getIconWidth();
+        if (!filename.equals(iv.getUserData()) || iv.getFitWidth() != width) {
+            // Sprites are decoded at the size they are shown, so a new size needs the sprite for that size.
+            iv.setImage(SpriteCache.getShared().get(filename, width));
+            iv.setUserData(filename);
+            iv.setFitWidth(width);
         }
-        String path = (filename.equals(Constants.BLANK_DARK) ? String.format("elements/%s.png", filename) : String
-                .format("animals/%s.png", filename));
-        ClassLoader classLoader = ClassLoader.getSystemClassLoader();
-        Image image = new Image(classLoader.getResourceAsStream(path));
+    }
+
+    /**
+     * @param style The background style for the cell, which is only applied if it has changed.
+     */
+    private void setStyle(String style) {
+        if (!contents.getStyle().equals(style)) {
+            contents.setStyle(style);
+        }
+    }
 
+    /**
+     * Creates an empty imageview. The onclick method confirms the appropriate hit/miss with the board for whichever
+     * image the view is showing when it is clicked.
+     *
+     * @return The resulting imageview.
+     */
+    private ImageView createImageView() {
         ImageView iv = new ImageView();
-        iv.setImage(image);
         iv.setPreserveRatio(true);
         iv.setSmooth(true);
         iv.setCache(true);
         iv.setPickOnBounds(true);
         iv.setOpacity(0.9);
 
-        // Add the onclick events
-        if (!(cell.getFinalised())) {
-            if (filename.equals(Constants.BLANK_DARK)) {
-                iv.setOnMouseClicked((Event event) -> {
-                    cell.confirmMiss();
-                    solver.updateBoardDisplay();
-                });
-            } else {
-                String animal = filename;
-                iv.setOnMouseClicked((Event event) -> {
-                    cell.confirmHit(animal);
-                    solver.updateBoardDisplay();
-                });
-            }
-        }
-
-        // If a cell is finalised or known then it only has one item in it which should occupy the whole space.
-        if ((cell.getFinalised()) || cell.getKnown()) {
-            iv.setFitWidth(this.solver.getHeight() * CELL_HEIGHT_FACTOR);
-        } else {
-            iv.setFitWidth(this.solver.getHeight() * CELL_HEIGHT_FACTOR * 0.5);
-        }
+        iv.setOnMouseClicked((Event event) -> handleClick(solver, snapshot, block, (String) iv.getUserData()));
 
         return iv;
     }
+
+    /**
+     * If a cell is finalised or known then it only has one item in it which should occupy the whole space, otherwise
+     * it holds up to four items in a grid.
+     *
+     * @return The width of each icon in the cell.
+     */
+    private double getIconWidth() {
+        int cell = block.index();
+        boolean single = snapshot != null && (snapshot.isFinalised(cell) || snapshot.isKnown(cell));
+        double factor = single ? 1 : 0.5;
+        return this.solver.getHeight() * CELL_HEIGHT_FACTOR * factor;
+    }
 }
@@ -1,12 +1,10 @@
-package discozoosolver;
+package ui;
 
 import javafx.scene.paint.Color;
 
 import java.util.Map;
 
-public final class Constants {
-    /* Size of the game board */
-    static final int BOARD_SIZE = 5;
+public final class DisplayConstants {
     /* Background colours for each environment type */
     protected static final Map<String, Color> BOARD_COLOURS = Map.ofEntries(
             Map.entry("Ice Age", Color.rgb(162, 187, 176)),
@@ -28,6 +26,11 @@ public final class Constants {
     /* Light blank icon filename */
     public static final String BLANK_LIGHT = "blank-light";
 
+    /* Background colour of a cell whose contents are known */
+    public static final String KNOWN_HIGHLIGHT = "#ffc107";
+    /* Background colour of the cells most likely to contain an animal */
+    public static final String PRIORITY_HIGHLIGHT = "#66bb6a";
+
     /* Proportion of the view height that a cell should occupy */
     public static final double CELL_HEIGHT_FACTOR = 0.125;
 
@@ -35,7 +38,7 @@ public final class Constants {
     public static final int WINDOW_HEIGHT = 720;
     public static final int WINDOW_WIDTH = 1080;
 
-    private Constants() {
+    private DisplayConstants() {
         throw new AssertionError();
     }
 
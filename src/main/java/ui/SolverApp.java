@@ -3,29 +3,46 @@ package ui;
 import discozoosolver.Animal;
 import discozoosolver.Block;
 import discozoosolver.Board;
-import discozoosolver.Cell;
+import discozoosolver.BoardSnapshot;
 import discozoosolver.GameDataParser;
 import discozoosolver.Location;
+import discozoosolver.PriorityMode;
+import discozoosolver.Recommendation;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.layout.BorderPane;
 import javafx.stage.Stage;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import static discozoosolver.Constants.WINDOW_HEIGHT;
-import static discozoosolver.Constants.WINDOW_WIDTH;
+import static ui.DisplayConstants.WINDOW_HEIGHT;
+import static ui.DisplayConstants.WINDOW_WIDTH;
 
 /**
  * The SolverApp is the main application class which instantiates and arranges all of the visual elements.
+ * <p>
+ * The board itself is updated by an AsyncSolver on a background thread, and the displays are only handed the
+ * snapshots it produces, so a slow solve never freezes the window. The recommended click for each snapshot is shown
+ * in the console once it has been found.
+ * <p>
+ * The board is shown as a grid of nodes by default. Setting the system property discozoosolver.renderer to canvas
+ * draws it onto a single canvas instead.
  */
-public class SolverApp extends Application {
+public class SolverApp extends Application implements AsyncSolver.Listener {
+    /** The system property choosing how the board is rendered. */
+    public static final String RENDERER_PROPERTY = "discozoosolver.renderer";
+
     private Console console;
     private Map<String, Location> locations;
-    private Board board;
+    private AsyncSolver solver;
+    private BoardView boardDisplay;
+    private String consoleMessage = "";
     private double height = WINDOW_HEIGHT;
 
     public static void main(String[] args) {
@@ -35,13 +52,15 @@ public class SolverApp extends Application {
     @Override
     public void start(Stage primaryStage) {
         locations = GameDataParser.parseData();
-        board = new Board(this);
+        Board board = new Board();
+        board.setPriorityMode(PriorityMode.EXACT);
+        solver = new AsyncSolver(board, Platform::runLater, this);
 
         primaryStage.setTitle("Disco Zoo Solver");
 
         BorderPane border = new BorderPane();
         ToolPane toolPane = new ToolPane(this);
-        BoardDisplay boardDisplay = board.getBoardDisplay();
+        boardDisplay = createBoardView();
         console = new Console();
 
         border.setTop(toolPane.getToolBar());
@@ -49,9 +68,7 @@ public class SolverApp extends Application {
         border.setBottom(console.getDisplay());
 
         primaryStage.heightProperty().addListener((obs, oldVal, newVal) -> {
-            for (Cell cell : board.getCells()) {
-                cell.getDisplay().setPrefSize();
-            }
+            boardDisplay.resize();
             height = border.getHeight();
         });
 
@@ -59,18 +76,74 @@ public class SolverApp extends Application {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        solver.shutdown();
+    }
+
+    /**
+     * @return The display for the board chosen by the discozoosolver.renderer system property.
+     */
+    private BoardView createBoardView() {
+        if ("canvas".equals(System.getProperty(RENDERER_PROPERTY))) {
+            Set<String> animals = new LinkedHashSet<>();
+            for (Location location : locations.values()) {
+                for (Animal animal : location.getAnimals()) {
+                    animals.add(animal.getName());
+                }
+            }
+            return new CanvasBoardDisplay(this, animals);
+        }
+        return new BoardDisplay(this);
+    }
+
     /**
      * @param message The text to display in the consoles.
      */
     public void setConsole(String message) {
+        consoleMessage = message;
         console.setText(message);
     }
 
+    /**
+     * Shows the board as it was after the latest action.
+     *
+     * @param snapshot The state of the board.
+     */
+    @Override
+    public void snapshotReady(BoardSnapshot snapshot) {
+        boardDisplay.showSnapshot(snapshot);
+    }
+
+    /**
+     * Adds the recommended click to the message in the console.
+     *
+     * @param snapshot       The snapshot the recommendation was made for.
+     * @param recommendation The recommended click.
+     */
+    @Override
+    public void recommendationReady(BoardSnapshot snapshot, Recommendation recommendation) {
+        Block block = recommendation.getBlock();
+        String advice = block == null ? "Every animal has been found"
+                : !recommendation.isExact() ? String.format("Try %d, %d (most likely cell)", block.x(), block.y())
+                : String.format("Try %d, %d (%.2f clicks expected)", block.x(), block.y(),
+                recommendation.getExpectedClicks());
+        console.setText(consoleMessage.isEmpty() ? advice : consoleMessage + " - " + advice);
+    }
+
+    /**
+     * @param message A description of the action which could not be applied.
+     */
+    @Override
+    public void solverFailed(String message) {
+        setConsole(message);
+    }
+
     /**
      * Updates the board display.
      */
     public void updateBoardDisplay() {
-        board.updateDisplay();
+        boardDisplay.updateDisplay();
     }
 
     /**
@@ -80,13 +153,7 @@ public class SolverApp extends Application {
      * @param animals  The list of discoverable animals.
      */
     public void startGame(String location, List<String> animals) {
-        board.resetBoard();
-        board.setLocation(location);
-        for (String animal : animals) {
-            board.addAnimal(locations.get(location).getAnimal(animal));
-        }
-        board.generateCandidates();
-        updateBoardDisplay();
+        solver.startGame(locations.get(location), animals);
     }
 
     /**
@@ -108,7 +175,7 @@ public class SolverApp extends Application {
      * @param animal The animal which was found.
      */
     public void confirmHit(Block block, String animal) {
-        board.confirmHit(block, animal);
+        solver.confirmHit(block, animal);
     }
 
     /**
@@ -117,7 +184,23 @@ public class SolverApp extends Application {
      * @param block The block which is empty.
      */
     public void confirmMiss(Block block) {
-        board.confirmMiss(block);
+        solver.confirmMiss(block);
+    }
+
+    /**
+     * Undoes the latest hit or miss.
+     */
+    public void undo() {
+        setConsole("Undone");
+        solver.undo();
+    }
+
+    /**
+     * Redoes the latest undone hit or miss.
+     */
+    public void redo() {
+        setConsole("Redone");
+        solver.redo();
     }
 
     /**
@@ -0,0 +1,146 @@
+package ui;
+
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.PixelReader;
+import javafx.scene.image.WritableImage;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A single image holding every sprite the board can show, packed into a grid of square tiles, so that a canvas can
+ * draw any sprite as a region of one image.
+ * <p>
+ * Each sprite is decoded once at the tile size, with its aspect ratio preserved, and centred in its tile. Tiles are
+ * drawn scaled to the size they are shown at, so one atlas serves a range of window sizes and only needs to be rebuilt
+ * when the size shown moves well away from the tile size.
+ */
+public final class SpriteAtlas {
+    /* Tile sizes are kept to powers of two within these bounds, so the atlas stays well within texture limits */
+    private static final int MIN_TILE_SIZE = 32;
+    private static final int MAX_TILE_SIZE = 256;
+
+    private final int tileSize;
+    private final int columns;
+    private final WritableImage image;
+    private final Map<String, Integer> tiles;
+
+    /**
+     * Sole constructor for SpriteAtlas which decodes and packs the given sprites.
+     *
+     * @param names    The names of the sprites to include, as accepted by SpriteCache.get.
+     * @param tileSize The width and height of each tile, in pixels.
+     * @throws IllegalArgumentException If there is no sprite with one of the given names.
+     */
+    public SpriteAtlas(Collection<String> names, int tileSize) {
+        Set<String> distinct = new LinkedHashSet<>(names);
+        this.tileSize = tileSize;
+        this.columns = Math.max(1, (int) Math.ceil(Math.sqrt(distinct.size())));
+        int rows = Math.max(1, (distinct.size() + columns - 1) / columns);
+        this.image = new WritableImage(columns * tileSize, rows * tileSize);
+        this.tiles = new HashMap<>();
+
+        int[] pixels = new int[tileSize * tileSize];
+        for (String name : distinct) {
+            Image sprite = SpriteCache.decode(name, tileSize, tileSize);
+            int width = (int) sprite.getWidth();
+            int height = (int) sprite.getHeight();
+            int tile = tiles.size();
+            PixelReader reader = sprite.getPixelReader();
+            reader.getPixels(0, 0, width, height, PixelFormat.getIntArgbInstance(), pixels, 0, width);
+            image.getPixelWriter().setPixels(getTileX(tile) + (tileSize - width) / 2,
+                    getTileY(tile) + (tileSize - height) / 2, width, height, PixelFormat.getIntArgbInstance(),
+                    pixels, 0, width);
+            tiles.put(name, tile);
+        }
+    }
+
+    /**
+     * @param size The size, in pixels, at which sprites will be shown.
+     * @return The tile size of an atlas suited to showing sprites at that size.
+     */
+    public static int tileSizeFor(double size) {
+        int tileSize = MIN_TILE_SIZE;
+        while (tileSize < size && tileSize < MAX_TILE_SIZE) {
+            tileSize *= 2;
+        }
+        return tileSize;
+    }
+
+    /**
+     * Draws a sprite scaled into a square, preserving its aspect ratio.
+     *
+     * @param gc   The context to draw with.
+     * @param name The name of the sprite.
+     * @param x    The left of the square.
+     * @param y    The top of the square.
+     * @param size The width and height of the square.
+     * @throws IllegalArgumentException If the atlas does not hold the sprite.
+     */
+    public void draw(GraphicsContext gc, String name, double x, double y, double size) {
+        int tile = getTile(name);
+        gc.drawImage(image, getTileX(tile), getTileY(tile), tileSize, tileSize, x, y, size, size);
+    }
+
+    /**
+     * @param name The name of a sprite.
+     * @return Whether the atlas holds the sprite.
+     */
+    public boolean contains(String name) {
+        return tiles.containsKey(name);
+    }
+
+    /**
+     * @param name The name of a sprite.
+     * @return The index of the sprite's tile.
+     */
+    private int getTile(String name) {
+        Integer tile = tiles.get(name);
+        if (tile == null) {
+            throw new IllegalArgumentException("Sprite is not in the atlas: " + name);
+        }
+        return tile;
+    }
+
+    /**
+     * @param tile The index of a tile.
+     * @return The left of the tile in the atlas.
+     */
+    private int getTileX(int tile) {
+        return (tile % columns) * tileSize;
+    }
+
+    /**
+     * @param tile The index of a tile.
+     * @return The top of the tile in the atlas.
+     */
+    private int getTileY(int tile) {
+        return (tile / columns) * tileSize;
+    }
+
+    /**
+     * @return The width and height of each tile, in pixels.
+     */
+    public int getTileSize() {
+        return tileSize;
+    }
+
+    /**
+     * @return The number of sprites in the atlas.
+     */
+    public int size() {
+        return tiles.size();
+    }
+
+    /**
+     * @return The packed image.
+     */
+    public Image getImage() {
+        return image;
+    }
+}
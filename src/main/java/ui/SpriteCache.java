@@ -0,0 +1,178 @@
+package ui;
+
+import javafx.scene.image.Image;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A cache of decoded animal and element sprites, shared by every display in the application. Each sprite is decoded
+ * from its PNG once for each size it is shown at and the same Image is handed to every ImageView which shows it, rather
+ * than decoding the file again for every cell on every render.
+ * <p>
+ * Sprites are decoded at the width they are displayed at, rounded up to a whole pixel, so a cached sprite holds no
+ * more pixels than are drawn. Resizing the window asks for new sizes, so the cache is bounded by the memory its
+ * decoded pixels occupy, at four bytes each, and evicts the least recently used sprites once that is exceeded.
+ */
+public final class SpriteCache {
+    /* The memory allowed for the shared cache, which holds every sprite at a few sizes many times over */
+    private static final long DEFAULT_BYTE_BUDGET = 16L << 20;
+    private static final SpriteCache SHARED = new SpriteCache(DEFAULT_BYTE_BUDGET);
+
+    private final long byteBudget;
+    private final LinkedHashMap<String, Image> sprites;
+    private long residentBytes;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    /**
+     * Sole constructor for SpriteCache.
+     *
+     * @param byteBudget The memory, in bytes, which the decoded sprites may occupy. The most recently used sprite is
+     *                   always kept, even if it is larger than this.
+     */
+    public SpriteCache(long byteBudget) {
+        if (byteBudget < 0) {
+            throw new IllegalArgumentException("Byte budget must not be negative");
+        }
+        this.byteBudget = byteBudget;
+        this.sprites = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * @return The cache shared by the application's displays.
+     */
+    public static SpriteCache getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns a sprite decoded to the given width, decoding it if it is not already cached.
+     *
+     * @param name  The name of an animal, or of an element such as DisplayConstants.BLANK_DARK.
+     * @param width The width the sprite is displayed at, in pixels. Sprites are at least one pixel wide.
+     * @return The sprite, with its aspect ratio preserved.
+     * @throws IllegalArgumentException If there is no sprite with the given name.
+     */
+    public synchronized Image get(String name, double width) {
+        int pixels = Math.max(1, (int) Math.ceil(width));
+        String key = name + "@" + pixels;
+        Image image = sprites.get(key);
+        if (image != null) {
+            hitCount++;
+            return image;
+        }
+        missCount++;
+        image = decode(name, pixels, 0);
+        sprites.put(key, image);
+        residentBytes += sizeOf(image);
+        evict();
+        return image;
+    }
+
+    /**
+     * Decodes a sprite without caching it.
+     *
+     * @param name   The name of the sprite.
+     * @param width  The width to decode it at.
+     * @param height The greatest height to decode it at, or 0 to choose the height from the width alone.
+     * @return The decoded sprite, with its aspect ratio preserved.
+     * @throws IllegalArgumentException If there is no sprite with the given name.
+     */
+    static Image decode(String name, int width, int height) {
+        String path = (name.equals(DisplayConstants.BLANK_DARK) || name.equals(DisplayConstants.BLANK_LIGHT))
+                ? "elements/" + name + ".png" : "animals/" + name + ".png";
+        try (InputStream input = SpriteCache.class.getClassLoader().getResourceAsStream(path)) {
+            if (input == null) {
+                throw new IllegalArgumentException("No sprite named " + name);
+            }
+            Image image = new Image(input, width, height, true, true);
+            if (image.isError()) {
+                throw new IllegalArgumentException("Unable to decode sprite " + path, image.getException());
+            }
+            return image;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Removes the least recently used sprites until the cache is within its budget, keeping the newest sprite.
+     */
+    private void evict() {
+        Iterator<Image> iterator = sprites.values().iterator();
+        while (residentBytes > byteBudget && sprites.size() > 1) {
+            residentBytes -= sizeOf(iterator.next());
+            iterator.remove();
+            evictionCount++;
+        }
+    }
+
+    /**
+     * @param image A decoded sprite.
+     * @return The memory its pixels occupy, in bytes.
+     */
+    private static long sizeOf(Image image) {
+        return 4L * (long) image.getWidth() * (long) image.getHeight();
+    }
+
+    /**
+     * Removes every sprite from the cache. The statistics are kept.
+     */
+    public synchronized void clear() {
+        sprites.clear();
+        residentBytes = 0;
+    }
+
+    /**
+     * @return The number of sprites in the cache.
+     */
+    public synchronized int size() {
+        return sprites.size();
+    }
+
+    /**
+     * @return The memory occupied by the cached sprites, in bytes.
+     */
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /**
+     * @return The memory the cached sprites may occupy, in bytes.
+     */
+    public long getByteBudget() {
+        return byteBudget;
+    }
+
+    /**
+     * @return The number of requests which were served from the cache.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * @return The number of requests which decoded a sprite.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * @return The number of sprites removed to stay within the budget.
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SpriteCache{size=" + sprites.size() + ", residentBytes=" + residentBytes + ", hits=" + hitCount
+                + ", misses=" + missCount + ", evictions=" + evictionCount + "}";
+    }
+}
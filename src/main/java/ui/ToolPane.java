@@ -9,7 +9,6 @@ import javafx.scene.control.ComboBox;
 import javafx.scene.control.Separator;
 import javafx.scene.control.ToggleButton;
 import javafx.scene.control.ToolBar;
-import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
 
@@ -17,9 +16,11 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Display class for the toolpane which handles the location and animal selection.
+ * Display class for the toolpane which handles the location and animal selection, and undoing and redoing clicks.
  */
 public class ToolPane {
+    private static final double ANIMAL_ICON_WIDTH = 45;
+
     private SolverApp solver;
     private ToolBar toolBar;
     private ComboBox<String> locationDropdown;
@@ -41,7 +42,7 @@ public class ToolPane {
         this.selectedAnimals = new ArrayList<>();
         this.numberSelected = 0;
         initialiseAnimalButtons(locationDropdown.getSelectionModel().getSelectedItem());
-        this.toolBar = new ToolBar(createAnimalSelection(), new Separator());
+        this.toolBar = new ToolBar(createAnimalSelection(), new Separator(), createHistoryButtons());
         this.toolBar.setPrefHeight(70);
     }
 
@@ -79,6 +80,22 @@ public class ToolPane {
         return button;
     }
 
+    /**
+     * @return The undo and redo buttons, which step back and forward through the clicks of the current game.
+     */
+    private HBox createHistoryButtons() {
+        Button undoButton = new Button("Undo");
+        undoButton.setPrefHeight(55);
+        undoButton.setOnAction((ActionEvent event) -> solver.undo());
+        Button redoButton = new Button("Redo");
+        redoButton.setPrefHeight(55);
+        redoButton.setOnAction((ActionEvent event) -> solver.redo());
+        HBox historyButtons = new HBox(undoButton, redoButton);
+        historyButtons.setSpacing(10);
+        historyButtons.setAlignment(Pos.CENTER_LEFT);
+        return historyButtons;
+    }
+
     /**
      * Creates a button for each discoverable animal and populates their image view.
      *
@@ -112,11 +129,8 @@ public class ToolPane {
         List<String> animals = solver.getAnimalsFromLocation(location);
         for (int i = 0; i < animalButtons.size(); i++) {
             ToggleButton button = animalButtons.get(i);
-            String path = String.format("animals/%s.png", animals.get(i));
-            ClassLoader classLoader = ClassLoader.getSystemClassLoader();
-            Image image = new Image(classLoader.getResourceAsStream(path));
-            ImageView imageView = new ImageView(image);
-            imageView.setFitWidth(45);
+            ImageView imageView = new ImageView(SpriteCache.getShared().get(animals.get(i), ANIMAL_ICON_WIDTH));
+            imageView.setFitWidth(ANIMAL_ICON_WIDTH);
             imageView.setPreserveRatio(true);
             imageView.setSmooth(true);
             imageView.setCache(true);
@@ -0,0 +1,127 @@
+import discozoosolver.Animal;
+import discozoosolver.Block;
+import discozoosolver.Board;
+import discozoosolver.BoardSnapshot;
+import discozoosolver.Location;
+import discozoosolver.Pattern;
+import discozoosolver.Recommendation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ui.AsyncSolver;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncSolverTest {
+
+    private static final long TIMEOUT_SECONDS = 10;
+    private static final Location LOCATION = new Location("Test",
+            List.of(new Animal("Bear", new Pattern(List.of(new Block(0, 0), new Block(1, 0))))));
+
+    private BlockingQueue<BoardSnapshot> snapshots;
+    private BlockingQueue<BoardSnapshot> recommended;
+    private BlockingQueue<String> failures;
+    private AsyncSolver solver;
+
+    @BeforeEach
+    void setUp() {
+        snapshots = new LinkedBlockingQueue<>();
+        recommended = new LinkedBlockingQueue<>();
+        failures = new LinkedBlockingQueue<>();
+        solver = new AsyncSolver(new Board(), Runnable::run, new AsyncSolver.Listener() {
+            @Override
+            public void snapshotReady(BoardSnapshot snapshot) {
+                snapshots.add(snapshot);
+            }
+
+            @Override
+            public void recommendationReady(BoardSnapshot snapshot, Recommendation recommendation) {
+                recommended.add(snapshot);
+            }
+
+            @Override
+            public void solverFailed(String message) {
+                failures.add(message);
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        solver.shutdown();
+    }
+
+    @Test
+    void testSnapshots() throws InterruptedException {
+        solver.startGame(LOCATION, List.of("Bear"));
+        BoardSnapshot start = snapshots.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        solver.confirmMiss(new Block(0, 0));
+        BoardSnapshot miss = snapshots.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        solver.confirmHit(new Block(0, 0), "Bear");
+        BoardSnapshot ignored = snapshots.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertNotNull(ignored, "A snapshot should follow every action");
+        assertAll(
+                () -> assertEquals(start.getCandidateCount(), 20, "The new game should have every candidate"),
+                () -> assertFalse(start.isFinalised(0), "The new game should have no clicks"),
+                () -> assertTrue(miss.isFinalised(0), "The miss should be applied"),
+                () -> assertEquals(miss.getCandidateCount(), 19, "The miss should remove a candidate"),
+                () -> assertEquals(ignored.getChangedCells(miss), 0, "Clicks on finalised cells should be ignored"),
+                () -> assertTrue(failures.isEmpty(), "Nothing should fail")
+        );
+    }
+
+    @Test
+    void testUndo() throws InterruptedException {
+        solver.startGame(LOCATION, List.of("Bear"));
+        BoardSnapshot start = snapshots.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        solver.confirmMiss(new Block(0, 0));
+        BoardSnapshot miss = snapshots.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        solver.undo();
+        BoardSnapshot undone = snapshots.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        solver.redo();
+        BoardSnapshot redone = snapshots.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        assertAll(
+                () -> assertSame(undone, start, "Undoing should hand over the earlier snapshot again"),
+                () -> assertSame(redone, miss, "Redoing should hand over the undone snapshot again")
+        );
+    }
+
+    @Test
+    void testRecommendation() throws InterruptedException {
+        solver.startGame(LOCATION, List.of("Bear"));
+        solver.confirmMiss(new Block(2, 2));
+        // The new game's snapshot is skipped if the miss has already superseded it.
+        BoardSnapshot latest;
+        do {
+            latest = snapshots.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull(latest, "The latest action should produce a snapshot");
+        } while (!latest.isFinalised(12));
+        // Only the search for the latest snapshot is guaranteed to be handed over.
+        BoardSnapshot snapshot;
+        do {
+            snapshot = recommended.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            assertNotNull(snapshot, "The latest snapshot should be given a recommendation");
+        } while (snapshot != latest);
+        assertTrue(recommended.isEmpty(), "No recommendation should follow the latest snapshot's");
+    }
+
+    @Test
+    void testFailure() throws InterruptedException {
+        solver.startGame(LOCATION, List.of("Bear"));
+        solver.confirmHit(new Block(2, 2), "Bear");
+        solver.confirmMiss(new Block(1, 2));
+        solver.confirmMiss(new Block(3, 2));
+        assertNotNull(failures.poll(TIMEOUT_SECONDS, TimeUnit.SECONDS),
+                "A result which no layout agrees with should be reported");
+    }
+}
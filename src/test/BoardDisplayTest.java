@@ -0,0 +1,13 @@
+import org.junit.jupiter.api.Test;
+import ui.BoardDisplay;
+import ui.SolverApp;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class BoardDisplayTest {
+
+    @Test
+    void testBoardDisplay() {
+        assertNotNull(new BoardDisplay(new SolverApp()));
+    }
+}
@@ -0,0 +1,40 @@
+import discozoosolver.Animal;
+import discozoosolver.Block;
+import discozoosolver.Board;
+import discozoosolver.Pattern;
+import org.junit.jupiter.api.Test;
+import ui.CanvasBoardDisplay;
+import ui.DisplayConstants;
+import ui.SolverApp;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CanvasBoardDisplayTest {
+
+    @Test
+    void testHitTesting() {
+        Board board = new Board();
+        CanvasBoardDisplay display = new CanvasBoardDisplay(new SolverApp(), List.of("Bear"));
+        assertNull(display.getIconAt(0, 0), "No icons are drawn before the first snapshot");
+        board.addAnimal(new Animal("Bear", new Pattern(List.of(new Block(0, 0), new Block(1, 0)))));
+        board.generateCandidates();
+        display.showSnapshot(board.snapshot());
+        double size = display.getCellSize();
+        assertAll(
+                () -> assertEquals(size, DisplayConstants.WINDOW_HEIGHT * DisplayConstants.CELL_HEIGHT_FACTOR,
+                        "Cells are sized to the window"),
+                () -> assertEquals(display.getBlockAt(size * 2.5, size * 4.5), new Block(2, 4),
+                        "Points are mapped to the cell under them"),
+                () -> assertNull(display.getBlockAt(size * 5.5, size), "Points off the board have no cell"),
+                () -> assertEquals(display.getIconAt(size * 1.25, size * 0.25), "Bear",
+                        "The top left icon is the first animal"),
+                () -> assertEquals(display.getIconAt(size * 1.75, size * 0.25), DisplayConstants.BLANK_DARK,
+                        "The miss icon follows the animals"),
+                () -> assertNull(display.getIconAt(size * 1.25, size * 0.75), "Empty parts of a cell have no icon")
+        );
+    }
+}
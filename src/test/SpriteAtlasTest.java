@@ -0,0 +1,57 @@
+import javafx.scene.image.Image;
+import org.junit.jupiter.api.Test;
+import ui.DisplayConstants;
+import ui.SpriteAtlas;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpriteAtlasTest {
+
+    @Test
+    void testPacking() {
+        SpriteAtlas atlas = new SpriteAtlas(List.of("Bear", "Beaver", "Cockatoo", "Bear", DisplayConstants.BLANK_DARK),
+                32);
+        Image image = atlas.getImage();
+        assertAll(
+                () -> assertEquals(atlas.size(), 4, "Each sprite is packed once"),
+                () -> assertEquals(image.getWidth(), 64.0, "Sprites are packed into a square grid"),
+                () -> assertEquals(image.getHeight(), 64.0, "Sprites are packed into a square grid"),
+                () -> assertTrue(atlas.contains("Cockatoo"), "Animals are packed"),
+                () -> assertTrue(atlas.contains(DisplayConstants.BLANK_DARK), "Elements are packed"),
+                () -> assertFalse(atlas.contains("Cow"), "Only the given sprites are packed"),
+                () -> assertTrue(countOpaquePixels(image, 0, 0) > 0, "The first tile holds a sprite"),
+                () -> assertTrue(countOpaquePixels(image, 32, 32) > 0, "The last tile holds a sprite")
+        );
+    }
+
+    @Test
+    void testTileSizes() {
+        assertAll(
+                () -> assertEquals(SpriteAtlas.tileSizeFor(10), 32, "Tiles have a minimum size"),
+                () -> assertEquals(SpriteAtlas.tileSizeFor(90), 128, "Tiles are at least as large as the sprites shown"),
+                () -> assertEquals(SpriteAtlas.tileSizeFor(128), 128, "Tiles are powers of two"),
+                () -> assertEquals(SpriteAtlas.tileSizeFor(1000), 256, "Tiles have a maximum size")
+        );
+    }
+
+    @Test
+    void testUnknownSprite() {
+        assertThrows(IllegalArgumentException.class, () -> new SpriteAtlas(List.of("Jackalope"), 32));
+    }
+
+    private static int countOpaquePixels(Image image, int left, int top) {
+        int count = 0;
+        for (int y = top; y < top + 32; y++) {
+            for (int x = left; x < left + 32; x++) {
+                count += (image.getPixelReader().getArgb(x, y) >>> 24) > 0 ? 1 : 0;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,67 @@
+import javafx.scene.image.Image;
+import org.junit.jupiter.api.Test;
+import ui.DisplayConstants;
+import ui.SpriteCache;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpriteCacheTest {
+
+    @Test
+    void testReuse() {
+        SpriteCache cache = new SpriteCache(1 << 20);
+        Image bear = cache.get("Bear", 44.2);
+        Image again = cache.get("Bear", 45);
+        Image large = cache.get("Bear", 90);
+        Image blank = cache.get(DisplayConstants.BLANK_DARK, 45);
+        assertAll(
+                () -> assertSame(again, bear, "Widths are rounded up to whole pixels"),
+                () -> assertNotSame(large, bear, "Each size is decoded separately"),
+                () -> assertEquals(bear.getWidth(), 45.0, "Sprites are decoded at the width shown"),
+                () -> assertEquals(large.getWidth(), 90.0, "Sprites are decoded at the width shown"),
+                () -> assertEquals(blank.getWidth(), 45.0, "Elements are cached alongside animals"),
+                () -> assertEquals(cache.size(), 3, "Each name and size is cached once"),
+                () -> assertEquals(cache.getHitCount(), 1L, "Repeated requests are hits"),
+                () -> assertEquals(cache.getMissCount(), 3L, "First requests are misses"),
+                () -> assertEquals(cache.getResidentBytes(), 4L * (45 * (long) bear.getHeight()
+                        + 90 * (long) large.getHeight() + 45 * (long) blank.getHeight()), "Pixels are counted")
+        );
+    }
+
+    @Test
+    void testEviction() {
+        SpriteCache cache = new SpriteCache(4 * 60 * 60);
+        Image bear = cache.get("Bear", 40);
+        cache.get("Beaver", 40);
+        Image recent = cache.get("Bear", 40);
+        cache.get("Cockatoo", 40);
+        assertAll(
+                () -> assertSame(recent, bear, "Sprites are reused while they fit"),
+                () -> assertTrue(cache.getResidentBytes() <= cache.getByteBudget(), "The cache stays within budget"),
+                () -> assertTrue(cache.getEvictionCount() > 0, "Sprites are evicted to stay within budget"),
+                () -> assertNotSame(cache.get("Beaver", 40), null, "Evicted sprites are decoded again"),
+                () -> assertEquals(cache.getMissCount(), 4L, "The least recently used sprite was evicted")
+        );
+    }
+
+    @Test
+    void testOversizedSprite() {
+        SpriteCache cache = new SpriteCache(16);
+        Image bear = cache.get("Bear", 40);
+        assertAll(
+                () -> assertSame(cache.get("Bear", 40), bear, "The newest sprite is kept even over budget"),
+                () -> assertEquals(cache.size(), 1, "Only the newest sprite is kept")
+        );
+    }
+
+    @Test
+    void testUnknownSprite() {
+        SpriteCache cache = new SpriteCache(1 << 20);
+        assertThrows(IllegalArgumentException.class, () -> cache.get("Jackalope", 45));
+    }
+}